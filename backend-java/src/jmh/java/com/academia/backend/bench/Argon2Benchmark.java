@@ -0,0 +1,50 @@
+package com.academia.backend.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Argon2 de Spring Security (BouncyCastle) con varios juegos de parámetros m/t/p (m en KiB):
+ * - 16384/2/1: PasswordHasher.Argon2Params.DEFAULTS
+ * - 19456/2/1: mínimo de OWASP, punto de partida de Argon2Calibrator
+ * - 65536/3/1: techo por defecto de la calibración
+ * - 16384/2/4: p > 1 en BouncyCastle, que calcula los carriles en serie
+ *   mvn -Pjmh test-compile exec:exec -Djmh.args="Argon2Benchmark -prof gc"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class Argon2Benchmark {
+
+  private static final String PASSWORD = "bench-Password-1234";
+
+  @Param({"16384/2/1", "19456/2/1", "65536/3/1", "16384/2/4"})
+  public String params;
+
+  private Argon2PasswordEncoder encoder;
+  private String hash;
+
+  @Setup
+  public void setup() {
+    String[] p = params.split("/");
+    // Mismos tamaños de sal y hash que PasswordHasher
+    encoder = new Argon2PasswordEncoder(16, 32, Integer.parseInt(p[2]), Integer.parseInt(p[0]),
+        Integer.parseInt(p[1]));
+    hash = encoder.encode(PASSWORD);
+  }
+
+  @Benchmark
+  public String encode() {
+    return encoder.encode(PASSWORD);
+  }
+
+  @Benchmark
+  public boolean verify() {
+    return encoder.matches(PASSWORD, hash);
+  }
+}
@@ -0,0 +1,72 @@
+package com.academia.backend.bench;
+
+import com.academia.backend.service.AuthService;
+import com.academia.backend.service.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste por request de las primitivas de autenticación que no tocan la BD:
+ * - JwtService: mintAccess, verify (jjwt), verifyAccess (lo que usa JwtFilter) y refreshAccess
+ * - AuthService: hmacRefresh (refresh/logout) y genRandomUrlToken (login/refresh)
+ *   mvn -Pjmh test-compile exec:exec -Djmh.args="AuthPrimitives -prof gc"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuthPrimitivesBenchmark {
+
+  private JwtService jwt;
+  private AuthService auth;
+  private String sub;
+  private String sid;
+  private String token;
+  private String refreshToken;
+
+  @Setup
+  public void setup() {
+    jwt = BenchSupport.jwtService(15, 5);
+    auth = BenchSupport.authService(jwt);
+    sub = UUID.randomUUID().toString();
+    sid = UUID.randomUUID().toString();
+    token = jwt.mintAccess(sub, sid, "STUDENT");
+    refreshToken = auth.genRandomUrlToken();
+  }
+
+  @Benchmark
+  public String mintAccess() {
+    return jwt.mintAccess(sub, sid, "STUDENT");
+  }
+
+  @Benchmark
+  public Jws<Claims> verify() {
+    return jwt.verify(token);
+  }
+
+  @Benchmark
+  public JwtService.AccessClaims verifyAccess() {
+    return jwt.verifyAccess(token);
+  }
+
+  @Benchmark
+  public String refreshAccess() {
+    return jwt.refreshAccess(token);
+  }
+
+  @Benchmark
+  public byte[] hmacRefresh() {
+    return auth.hmacRefresh(refreshToken);
+  }
+
+  @Benchmark
+  public String genRandomUrlToken() {
+    return auth.genRandomUrlToken();
+  }
+}
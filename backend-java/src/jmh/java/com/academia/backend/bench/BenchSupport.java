@@ -0,0 +1,69 @@
+package com.academia.backend.bench;
+
+import com.academia.backend.service.AuthService;
+import com.academia.backend.service.JwtKeyRing;
+import com.academia.backend.service.JwtService;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+// Construye los beans con sus propiedades @Value sin levantar el contexto de Spring
+final class BenchSupport {
+
+  static final String SECRET = "bench-secret-jwt-key-minimum-256-bits-required-for-hs256";
+
+  private BenchSupport() {
+  }
+
+  static JwtService jwtService(long accessTtlMinutes, long renewThresholdMinutes) {
+    return jwtService(keyRing("HS256", ""), accessTtlMinutes, renewThresholdMinutes);
+  }
+
+  static JwtService jwtService(JwtKeyRing keys, long accessTtlMinutes, long renewThresholdMinutes) {
+    return jwtService(keys, true, accessTtlMinutes, renewThresholdMinutes);
+  }
+
+  static JwtService jwtService(JwtKeyRing keys, boolean compactCodec, long accessTtlMinutes,
+      long renewThresholdMinutes) {
+    JwtService jwt = new JwtService(keys, compactCodec);
+    set(jwt, "accessTtlMinutes", accessTtlMinutes);
+    set(jwt, "renewThresholdMinutes", renewThresholdMinutes);
+    return jwt;
+  }
+
+  // Solo para las primitivas sin BD (hmacRefresh, genRandomUrlToken): repos y cachés a null
+  static AuthService authService(JwtService jwt) {
+    AuthService auth = new AuthService(null, null, null, jwt, null, null, null, null, null);
+    set(auth, "refreshSecret", "bench-refresh-hmac-key-minimum-256-bits-required");
+    return auth;
+  }
+
+  static JwtKeyRing keyRing(String alg, String privateKeyPem) {
+    JwtKeyRing keys = new JwtKeyRing();
+    set(keys, "alg", alg);
+    set(keys, "secret", SECRET);
+    set(keys, "privateKeyPem", privateKeyPem);
+    set(keys, "publicKeyPem", "");
+    set(keys, "verificationKeysPem", "");
+    set(keys, "acceptLegacyHmac", true);
+    set(keys, "accessTtlMinutes", 15L);
+    try {
+      Method init = JwtKeyRing.class.getDeclaredMethod("init");
+      init.setAccessible(true);
+      init.invoke(keys);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("No se pudo inicializar JwtKeyRing", e);
+    }
+    return keys;
+  }
+
+  static void set(Object target, String field, Object value) {
+    try {
+      Field f = target.getClass().getDeclaredField(field);
+      f.setAccessible(true);
+      f.set(target, value);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("No se pudo asignar " + field, e);
+    }
+  }
+}
@@ -0,0 +1,48 @@
+package com.academia.backend.bench;
+
+import com.academia.backend.service.JwtService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Emisión y verificación de access tokens HS256: jjwt genérico frente al codec compacto
+ * (jwt.compactCodec). Con -prof gc se ve además la memoria asignada por operación.
+ *   mvn -Pjmh test-compile exec:exec -Djmh.args="JwtCodecBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtCodecBenchmark {
+
+  @Param({"jjwt", "compact"})
+  public String codec;
+
+  private JwtService jwt;
+  private String sub;
+  private String sid;
+  private String token;
+
+  @Setup
+  public void setup() {
+    jwt = BenchSupport.jwtService(BenchSupport.keyRing("HS256", ""), "compact".equals(codec), 15, 5);
+    sub = UUID.randomUUID().toString();
+    sid = UUID.randomUUID().toString();
+    token = jwt.mintAccess(sub, sid, "STUDENT");
+  }
+
+  @Benchmark
+  public String mint() {
+    return jwt.mintAccess(sub, sid, "STUDENT");
+  }
+
+  // Lo que hace JwtFilter en cada request
+  @Benchmark
+  public JwtService.AccessClaims verify() {
+    return jwt.verifyAccess(token);
+  }
+}
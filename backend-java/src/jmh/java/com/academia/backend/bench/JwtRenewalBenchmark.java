@@ -0,0 +1,45 @@
+package com.academia.backend.bench;
+
+import com.academia.backend.service.JwtService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste por request de JwtFilter con un token recién emitido:
+ * antes se verificaba y se volvía a firmar siempre (refreshAccess); ahora solo se verifica
+ * y renewIfExpiring decide con las claims ya parseadas.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtRenewalBenchmark {
+
+  private JwtService jwt;
+  private String token;
+
+  @Setup
+  public void setup() {
+    jwt = BenchSupport.jwtService(15, 5);
+    token = jwt.mintAccess(UUID.randomUUID().toString(), UUID.randomUUID().toString(), "STUDENT");
+  }
+
+  @Benchmark
+  public void reMintEveryRequest(Blackhole bh) {
+    JwtService.AccessClaims c = jwt.verifyAccess(token);
+    bh.consume(c);
+    bh.consume(jwt.refreshAccess(token));
+  }
+
+  @Benchmark
+  public void slidingRenewal(Blackhole bh) {
+    JwtService.AccessClaims c = jwt.verifyAccess(token);
+    bh.consume(c);
+    bh.consume(jwt.renewIfExpiring(c));
+  }
+}
@@ -0,0 +1,32 @@
+package com.academia.backend.config;
+
+import com.academia.backend.domain.Role;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Datos del access token ya verificado por JwtFilter. Se construye una vez por request y queda
+ * como principal de la autenticación y como atributo de la request, para que interceptores y
+ * controladores no vuelvan a verificar la firma. Los controladores lo reciben como parámetro
+ * (AuthContextArgumentResolver). role es null en tokens emitidos sin ese claim.
+ */
+public record AuthContext(UUID userId, UUID sessionId, Role role, Instant expiresAt) implements AuthenticatedPrincipal {
+
+  public static final String ATTRIBUTE = AuthContext.class.getName();
+
+  // getName() mantiene el comportamiento de Authentication.getName(): el id del usuario.
+  // AuthenticatedPrincipal y no java.security.Principal: Spring MVC resuelve los parámetros
+  // Principal antes que AuthContextArgumentResolver y fallaría con el token de autenticación
+  @Override
+  public String getName() {
+    return userId.toString();
+  }
+
+  // null si la request no trae un token válido
+  public static AuthContext from(HttpServletRequest request) {
+    return request.getAttribute(ATTRIBUTE) instanceof AuthContext ctx ? ctx : null;
+  }
+}
@@ -0,0 +1,30 @@
+package com.academia.backend.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.server.ResponseStatusException;
+
+// Inyecta el AuthContext de la request en los parámetros de los controladores
+public class AuthContextArgumentResolver implements HandlerMethodArgumentResolver {
+
+  @Override
+  public boolean supportsParameter(@NonNull MethodParameter parameter) {
+    return AuthContext.class.equals(parameter.getParameterType());
+  }
+
+  @Override
+  public Object resolveArgument(@NonNull MethodParameter parameter, ModelAndViewContainer mavContainer,
+      @NonNull NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+    AuthContext ctx = AuthContext.from(webRequest.getNativeRequest(HttpServletRequest.class));
+    if (ctx == null) {
+      throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Usuario no autenticado");
+    }
+    return ctx;
+  }
+}
@@ -0,0 +1,45 @@
+package com.academia.backend.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+// Id de correlación por request: se toma de X-Request-Id si es válido o se genera, y va al MDC
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CorrelationIdFilter extends OncePerRequestFilter {
+
+  public static final String HEADER = "X-Request-Id";
+  public static final String MDC_KEY = "correlationId";
+
+  // Evita inyectar saltos de línea o valores enormes en logs y cabeceras
+  private static final Pattern VALID_ID = Pattern.compile("[A-Za-z0-9._-]{8,64}");
+
+  @Override
+  protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                  @NonNull HttpServletResponse response,
+                                  @NonNull FilterChain chain) throws ServletException, IOException {
+    String correlationId = request.getHeader(HEADER);
+    if (correlationId == null || !VALID_ID.matcher(correlationId).matches()) {
+      correlationId = UUID.randomUUID().toString();
+    }
+    MDC.put(MDC_KEY, correlationId);
+    response.setHeader(HEADER, correlationId);
+    try {
+      chain.doFilter(request, response);
+    } finally {
+      MDC.remove(MDC_KEY);
+    }
+  }
+}
@@ -0,0 +1,75 @@
+package com.academia.backend.config;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * AsyncAppender de logback que cuenta los eventos perdidos: los descartados por debajo de WARN
+ * cuando la cola supera el umbral (discardingThreshold) y los rechazados con la cola llena
+ * (neverBlock). Logback instancia el appender fuera de Spring, por eso los contadores se
+ * publican en un registro estático por nombre de appender.
+ */
+public class CountingAsyncAppender extends AsyncAppender {
+
+  public static final class Counters {
+    final LongAdder appended = new LongAdder();
+    final LongAdder discarded = new LongAdder();
+    final LongAdder dropped = new LongAdder();
+    volatile CountingAsyncAppender appender;
+
+    public long appended() {
+      return appended.sum();
+    }
+
+    public long discarded() {
+      return discarded.sum();
+    }
+
+    public long dropped() {
+      return dropped.sum();
+    }
+
+    public int queueSize() {
+      CountingAsyncAppender a = appender;
+      return a != null ? a.getQueueSize() : 0;
+    }
+
+    public int remainingCapacity() {
+      CountingAsyncAppender a = appender;
+      return a != null ? a.getRemainingCapacity() : 0;
+    }
+  }
+
+  private static final Map<String, Counters> REGISTRY = new ConcurrentHashMap<>();
+
+  private Counters counters;
+
+  public static Map<String, Counters> registry() {
+    return REGISTRY;
+  }
+
+  @Override
+  public void start() {
+    counters = REGISTRY.computeIfAbsent(getName(), n -> new Counters());
+    counters.appender = this;
+    super.start();
+  }
+
+  @Override
+  protected void append(ILoggingEvent event) {
+    // Misma condición que AsyncAppenderBase; el conteo es aproximado bajo concurrencia
+    int remaining = getRemainingCapacity();
+    if (remaining < getDiscardingThreshold() && isDiscardable(event)) {
+      counters.discarded.increment();
+    } else if (remaining == 0 && isNeverBlock()) {
+      counters.dropped.increment();
+    } else {
+      counters.appended.increment();
+    }
+    super.append(event);
+  }
+}
@@ -1,8 +1,13 @@
 package com.academia.backend.config;
 
+import com.academia.backend.service.HashingUnavailableException;
+import com.academia.backend.service.TooManyAttemptsException;
 import io.jsonwebtoken.ExpiredJwtException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.server.ResponseStatusException;
@@ -30,6 +35,35 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
                 .body(Map.of(ERROR_KEY, "Token expirado"));
     }
 
+    // Pool de Argon2 saturado: el cliente reintenta más tarde
+    @ExceptionHandler(HashingUnavailableException.class)
+    public ResponseEntity<Map<String, String>> handleHashingUnavailableException(HashingUnavailableException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(Map.of(ERROR_KEY, ex.getMessage()));
+    }
+
+    // LoginThrottle: IP o cuenta bloqueada temporalmente
+    @ExceptionHandler(TooManyAttemptsException.class)
+    public ResponseEntity<Map<String, String>> handleTooManyAttemptsException(TooManyAttemptsException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(Map.of(ERROR_KEY, ex.getMessage()));
+    }
+
+    // Denegado por @PreAuthorize (el rol del token no alcanza)
+    @ExceptionHandler(AccessDeniedException.class)
+    public ResponseEntity<Map<String, String>> handleAccessDeniedException(AccessDeniedException ex) {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(Map.of(ERROR_KEY, "Acceso denegado"));
+    }
+
+    @ExceptionHandler(AuthenticationException.class)
+    public ResponseEntity<Map<String, String>> handleAuthenticationException(AuthenticationException ex) {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(Map.of(ERROR_KEY, "Usuario no autenticado"));
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, String>> handleGenericException(Exception ex) {
         logger.error("Error interno del servidor", ex);
@@ -1,15 +1,17 @@
 package com.academia.backend.config;
 
-import com.academia.backend.repo.SessionRepo;
+import com.academia.backend.domain.Role;
 import com.academia.backend.service.JwtService;
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jws;
+import com.academia.backend.service.SessionActivity;
+import com.academia.backend.service.SessionCache;
+import com.academia.backend.service.TokenRevocations;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.lang.NonNull;
@@ -18,17 +20,22 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
 @Component
 public class JwtFilter extends OncePerRequestFilter {
   private final JwtService jwt;
-  private final SessionRepo sessions;
+  private final SessionCache sessions;
+  private final TokenRevocations revocations;
+  private final SessionActivity activity;
 
-  public JwtFilter(JwtService jwt, SessionRepo sessions) {
+  public JwtFilter(JwtService jwt, SessionCache sessions, TokenRevocations revocations, SessionActivity activity) {
     this.jwt = jwt;
     this.sessions = sessions;
+    this.revocations = revocations;
+    this.activity = activity;
   }
 
   @Override
@@ -41,6 +48,7 @@ public class JwtFilter extends OncePerRequestFilter {
         path.equals("/auth/check") ||
         path.equals("/auth/logout") ||
         path.startsWith("/health") ||
+        path.startsWith("/.well-known") ||
         path.startsWith("/ingest") ||
         path.startsWith("/v3/api-docs") ||
         path.startsWith("/swagger-ui");
@@ -54,20 +62,29 @@ public class JwtFilter extends OncePerRequestFilter {
     if (h != null && h.startsWith("Bearer ")) {
       String token = h.substring(7);
       try {
-        Jws<Claims> jws = jwt.verify(token);
-        Claims c = jws.getBody();
-        String sid = c.get("sid", String.class);
-        var rowOpt = sessions.findById(UUID.fromString(sid));
-        if (rowOpt.isPresent() &&
-            !rowOpt.get().isRevoked() &&
-            rowOpt.get().getExpiresAt().isAfter(Instant.now())) {
-          Authentication auth = new UsernamePasswordAuthenticationToken(
-              c.get("sub", String.class), null, List.of(new SimpleGrantedAuthority("USER")));
+        JwtService.AccessClaims c = jwt.verifyAccess(token);
+        UUID sid = UUID.fromString(c.sessionId());
+        UUID userId = UUID.fromString(c.subject());
+        // Modo stateless: solo firma, claims y revocaciones en memoria. Si no, estado de la
+        // sesión desde la caché, que solo va a la BD en un fallo
+        boolean stateless = revocations.isFresh();
+        boolean active = stateless
+            ? !revocations.isRevoked(userId, sid, c.issuedAt())
+            : sessions.isActive(sid);
+        if (active) {
+          // Único punto donde se verifica el token; el resto de la request usa este contexto
+          AuthContext ctx = new AuthContext(userId, sid, parseRole(c.role()),
+              Instant.ofEpochSecond(c.expiresAt()));
+          req.setAttribute(AuthContext.ATTRIBUTE, ctx);
+          activity.touch(sid);
+          Authentication auth = new UsernamePasswordAuthenticationToken(ctx, null, authorities(ctx.role()));
           SecurityContextHolder.getContext().setAuthentication(auth);
 
-          // Auto-refresh: generate new access token with extended expiration
-          String newToken = jwt.refreshAccess(token);
-          res.setHeader("X-New-Access-Token", newToken);
+          // Auto-refresh: new access token only when the current one is about to expire.
+          // Sin estado no se sabe si la sesión sigue viva; en ese modo se renueva con /refresh
+          if (!stateless) {
+            jwt.renewIfExpiring(c).ifPresent(newToken -> res.setHeader("X-New-Access-Token", newToken));
+          }
         }
       } catch (Exception ignored) {
         // Ignored: if JWT parsing or session validation fails, continue without
@@ -76,4 +93,28 @@ public class JwtFilter extends OncePerRequestFilter {
     }
     chain.doFilter(req, res);
   }
+
+  private static Role parseRole(String role) {
+    if (role == null) {
+      return null;
+    }
+    try {
+      return Role.valueOf(role);
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  // USER para cualquier sesión válida más ROLE_<rol> para @PreAuthorize; SUPER_ADMIN incluye ADMIN
+  private static List<GrantedAuthority> authorities(Role role) {
+    List<GrantedAuthority> authorities = new ArrayList<>(3);
+    authorities.add(new SimpleGrantedAuthority("USER"));
+    if (role != null) {
+      authorities.add(new SimpleGrantedAuthority("ROLE_" + role.name()));
+      if (role == Role.SUPER_ADMIN) {
+        authorities.add(new SimpleGrantedAuthority("ROLE_" + Role.ADMIN.name()));
+      }
+    }
+    return authorities;
+  }
 }
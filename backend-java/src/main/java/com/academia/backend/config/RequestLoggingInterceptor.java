@@ -1,13 +1,15 @@
 package com.academia.backend.config;
 
 import com.academia.backend.service.LogService;
-import com.academia.backend.service.JwtService;
+import com.academia.backend.service.RequestLogSampler;
+import com.academia.backend.service.RequestMetricsService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.lang.NonNull;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
 
 import java.util.UUID;
 
@@ -15,11 +17,15 @@ import java.util.UUID;
 public class RequestLoggingInterceptor implements HandlerInterceptor {
   
   private final LogService logService;
-  private final JwtService jwtService;
+  private final RequestMetricsService requestMetricsService;
+  private final RequestLogSampler requestLogSampler;
   
-  public RequestLoggingInterceptor(LogService logService, JwtService jwtService) {
+  public RequestLoggingInterceptor(LogService logService,
+                                   RequestMetricsService requestMetricsService,
+                                   RequestLogSampler requestLogSampler) {
     this.logService = logService;
-    this.jwtService = jwtService;
+    this.requestMetricsService = requestMetricsService;
+    this.requestLogSampler = requestLogSampler;
   }
   
   @Override
@@ -48,19 +54,18 @@ public class RequestLoggingInterceptor implements HandlerInterceptor {
     String method = request.getMethod();
     int status = response.getStatus();
     
-    // Intentar extraer user ID del token si existe
-    UUID userId = null;
-    try {
-      String authHeader = request.getHeader("Authorization");
-      if (authHeader != null && authHeader.startsWith("Bearer ")) {
-        userId = jwtService.extractUserIdFromHeader(authHeader);
-      }
-    } catch (Exception e) {
-      // Ignorar si no hay token o es inválido
-    }
+    // Todas las requests alimentan el histograma de latencias del endpoint
+    requestMetricsService.record(method, resolveEndpoint(request), status, duration);
     
-    // Determinar el módulo basado en la ruta
+    // Muestreo por cola: con la request terminada se decide si merece una fila en system_logs
     String module = determineModule(path);
+    if (!requestLogSampler.shouldPersist(module, path, status, duration)) {
+      return;
+    }
+    
+    // Usuario del token ya verificado por JwtFilter (null si no hay token o es inválido)
+    AuthContext auth = AuthContext.from(request);
+    UUID userId = auth != null ? auth.userId() : null;
     
     // Log según el código de estado
     if (status >= 500) {
@@ -75,6 +80,12 @@ public class RequestLoggingInterceptor implements HandlerInterceptor {
     }
   }
   
+  // Usar el patrón de la ruta (/api/courses/{id}) para no crear un histograma por cada ID
+  private String resolveEndpoint(HttpServletRequest request) {
+    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    return pattern != null ? pattern.toString() : "UNMAPPED";
+  }
+  
   private String determineModule(String path) {
     if (path.contains("/courses")) return "Course";
     if (path.contains("/enrollments")) return "Enrollment";
@@ -1,8 +1,10 @@
 package com.academia.backend.config;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
@@ -10,6 +12,7 @@ import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 @EnableWebSecurity
+@EnableMethodSecurity
 @Configuration
 public class SecurityConfig {
 
@@ -18,9 +21,11 @@ public class SecurityConfig {
     http.csrf(csrf -> csrf.disable());
     http.sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
     http.authorizeHttpRequests(auth -> auth
+        // El despacho asíncrono de SSE (/api/logs/stream) ya se autorizó en la request original
+        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
         .requestMatchers("/api/auth/login", "/api/auth/register", "/api/auth/refresh", "/api/auth/check",
             "/api/auth/logout",
-            "/health", "/ingest", "/api/locations/**", "/api/courses", "/api/courses/**",
+            "/health", "/ingest", "/.well-known/jwks.json", "/api/locations/**", "/api/courses", "/api/courses/**",
             "/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html")
         .permitAll()
         .anyRequest().authenticated());
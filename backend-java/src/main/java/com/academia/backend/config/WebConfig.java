@@ -1,13 +1,22 @@
 package com.academia.backend.config;
 
+import org.springdoc.core.utils.SpringDocUtils;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.lang.NonNull;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
   
+  static {
+    // AuthContext sale del token, no es un parámetro de la API
+    SpringDocUtils.getConfig().addRequestWrapperToIgnore(AuthContext.class);
+  }
+  
   private final RequestLoggingInterceptor requestLoggingInterceptor;
   
   public WebConfig(RequestLoggingInterceptor requestLoggingInterceptor) {
@@ -20,4 +29,9 @@ public class WebConfig implements WebMvcConfigurer {
       .addPathPatterns("/api/**")
       .excludePathPatterns("/api/health", "/swagger-ui/**", "/v3/api-docs/**");
   }
+  
+  @Override
+  public void addArgumentResolvers(@NonNull List<HandlerMethodArgumentResolver> resolvers) {
+    resolvers.add(new AuthContextArgumentResolver());
+  }
 }
@@ -0,0 +1,44 @@
+package com.academia.backend.domain;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "log_dictionary", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_log_dictionary_kind_value", columnNames = {"kind", "value"})
+})
+public class LogDictionaryEntry {
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Integer id;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 20)
+  private LogDictionaryKind kind;
+
+  @Column(nullable = false, length = 1000)
+  private String value;
+
+  public Integer getId() {
+    return id;
+  }
+
+  public void setId(Integer id) {
+    this.id = id;
+  }
+
+  public LogDictionaryKind getKind() {
+    return kind;
+  }
+
+  public void setKind(LogDictionaryKind kind) {
+    this.kind = kind;
+  }
+
+  public String getValue() {
+    return value;
+  }
+
+  public void setValue(String value) {
+    this.value = value;
+  }
+}
@@ -0,0 +1,9 @@
+package com.academia.backend.domain;
+
+// Columnas de system_logs codificadas como id de log_dictionary
+public enum LogDictionaryKind {
+    MODULE,
+    ACTION,
+    USER_AGENT,
+    REQUEST_PATH
+}
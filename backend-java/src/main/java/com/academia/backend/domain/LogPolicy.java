@@ -0,0 +1,85 @@
+package com.academia.backend.domain;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+// Regla de persistencia de logs; "*" en módulo o nivel actúa como comodín
+@Entity
+@Table(name = "log_policies", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_log_policies_module_level", columnNames = {"module", "log_level"})
+})
+public class LogPolicy {
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(nullable = false, length = 100)
+  private String module;
+
+  @Column(name = "log_level", nullable = false, length = 20)
+  private String logLevel;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 20)
+  private LogPolicyAction action;
+
+  @Column(name = "sample_rate", nullable = false)
+  private double sampleRate = 1.0;
+
+  @Column(name = "updated_at", nullable = false)
+  private Instant updatedAt;
+
+  @PrePersist
+  @PreUpdate
+  void touch() {
+    updatedAt = Instant.now();
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public String getModule() {
+    return module;
+  }
+
+  public void setModule(String module) {
+    this.module = module;
+  }
+
+  public String getLogLevel() {
+    return logLevel;
+  }
+
+  public void setLogLevel(String logLevel) {
+    this.logLevel = logLevel;
+  }
+
+  public LogPolicyAction getAction() {
+    return action;
+  }
+
+  public void setAction(LogPolicyAction action) {
+    this.action = action;
+  }
+
+  public double getSampleRate() {
+    return sampleRate;
+  }
+
+  public void setSampleRate(double sampleRate) {
+    this.sampleRate = sampleRate;
+  }
+
+  public Instant getUpdatedAt() {
+    return updatedAt;
+  }
+
+  public void setUpdatedAt(Instant updatedAt) {
+    this.updatedAt = updatedAt;
+  }
+}
@@ -0,0 +1,8 @@
+package com.academia.backend.domain;
+
+// Qué hacer con un log según su módulo y nivel
+public enum LogPolicyAction {
+  PERSIST, // guardar en system_logs
+  SAMPLE,  // guardar una fracción (sampleRate)
+  CONSOLE  // solo consola / archivo
+}
@@ -0,0 +1,75 @@
+package com.academia.backend.domain;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+// Stack trace normalizado, guardado una sola vez por huella (fingerprint)
+@Entity
+@Table(name = "log_stack_traces")
+public class LogStackTrace {
+  @Id
+  private Long fingerprint;
+
+  @Column(name = "exception_class", nullable = false, length = 300)
+  private String exceptionClass;
+
+  @Column(name = "stack_trace", nullable = false, columnDefinition = "text")
+  private String stackTrace;
+
+  @Column(name = "first_seen", nullable = false)
+  private Instant firstSeen;
+
+  @Column(name = "last_seen", nullable = false)
+  private Instant lastSeen;
+
+  @Column(nullable = false)
+  private long occurrences;
+
+  public Long getFingerprint() {
+    return fingerprint;
+  }
+
+  public void setFingerprint(Long fingerprint) {
+    this.fingerprint = fingerprint;
+  }
+
+  public String getExceptionClass() {
+    return exceptionClass;
+  }
+
+  public void setExceptionClass(String exceptionClass) {
+    this.exceptionClass = exceptionClass;
+  }
+
+  public String getStackTrace() {
+    return stackTrace;
+  }
+
+  public void setStackTrace(String stackTrace) {
+    this.stackTrace = stackTrace;
+  }
+
+  public Instant getFirstSeen() {
+    return firstSeen;
+  }
+
+  public void setFirstSeen(Instant firstSeen) {
+    this.firstSeen = firstSeen;
+  }
+
+  public Instant getLastSeen() {
+    return lastSeen;
+  }
+
+  public void setLastSeen(Instant lastSeen) {
+    this.lastSeen = lastSeen;
+  }
+
+  public long getOccurrences() {
+    return occurrences;
+  }
+
+  public void setOccurrences(long occurrences) {
+    this.occurrences = occurrences;
+  }
+}
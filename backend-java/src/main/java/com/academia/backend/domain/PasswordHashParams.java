@@ -0,0 +1,105 @@
+package com.academia.backend.domain;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+// Versión de parámetros Argon2 elegida por calibración (id = versión)
+@Entity
+@Table(name = "password_hash_params")
+public class PasswordHashParams {
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "memory_kb", nullable = false)
+  private int memoryKb;
+
+  @Column(nullable = false)
+  private int iterations;
+
+  @Column(nullable = false)
+  private int parallelism;
+
+  @Column(name = "target_ms", nullable = false)
+  private int targetMs;
+
+  @Column(name = "measured_ms", nullable = false)
+  private int measuredMs;
+
+  @Column(length = 255)
+  private String host;
+
+  @Column(name = "created_at", nullable = false)
+  private Instant createdAt;
+
+  @PrePersist
+  void prePersist() {
+    if (createdAt == null) {
+      createdAt = Instant.now();
+    }
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public int getMemoryKb() {
+    return memoryKb;
+  }
+
+  public void setMemoryKb(int memoryKb) {
+    this.memoryKb = memoryKb;
+  }
+
+  public int getIterations() {
+    return iterations;
+  }
+
+  public void setIterations(int iterations) {
+    this.iterations = iterations;
+  }
+
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  public void setParallelism(int parallelism) {
+    this.parallelism = parallelism;
+  }
+
+  public int getTargetMs() {
+    return targetMs;
+  }
+
+  public void setTargetMs(int targetMs) {
+    this.targetMs = targetMs;
+  }
+
+  public int getMeasuredMs() {
+    return measuredMs;
+  }
+
+  public void setMeasuredMs(int measuredMs) {
+    this.measuredMs = measuredMs;
+  }
+
+  public String getHost() {
+    return host;
+  }
+
+  public void setHost(String host) {
+    this.host = host;
+  }
+
+  public Instant getCreatedAt() {
+    return createdAt;
+  }
+
+  public void setCreatedAt(Instant createdAt) {
+    this.createdAt = createdAt;
+  }
+}
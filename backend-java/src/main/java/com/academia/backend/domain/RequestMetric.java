@@ -0,0 +1,112 @@
+package com.academia.backend.domain;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+// Rollup por minuto de las latencias de un endpoint y clase de estado (2xx, 4xx, 5xx...)
+@Entity
+@Table(name = "request_metrics", indexes = {
+    @Index(name = "idx_request_metrics_bucket", columnList = "bucket_start, endpoint")
+})
+public class RequestMetric {
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "bucket_start", nullable = false)
+  private Instant bucketStart;
+
+  @Column(name = "request_method", nullable = false, length = 10)
+  private String requestMethod;
+
+  @Column(nullable = false, length = 300)
+  private String endpoint;
+
+  @Column(name = "status_class", nullable = false, length = 3)
+  private String statusClass;
+
+  @Column(name = "request_count", nullable = false)
+  private long requestCount;
+
+  @Column(name = "total_ms", nullable = false)
+  private long totalMs;
+
+  @Column(name = "max_ms", nullable = false)
+  private long maxMs;
+
+  // Contadores de LatencyHistogram (índice = bucket)
+  @Column(nullable = false, columnDefinition = "bigint[]")
+  private long[] histogram;
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public Instant getBucketStart() {
+    return bucketStart;
+  }
+
+  public void setBucketStart(Instant bucketStart) {
+    this.bucketStart = bucketStart;
+  }
+
+  public String getRequestMethod() {
+    return requestMethod;
+  }
+
+  public void setRequestMethod(String requestMethod) {
+    this.requestMethod = requestMethod;
+  }
+
+  public String getEndpoint() {
+    return endpoint;
+  }
+
+  public void setEndpoint(String endpoint) {
+    this.endpoint = endpoint;
+  }
+
+  public String getStatusClass() {
+    return statusClass;
+  }
+
+  public void setStatusClass(String statusClass) {
+    this.statusClass = statusClass;
+  }
+
+  public long getRequestCount() {
+    return requestCount;
+  }
+
+  public void setRequestCount(long requestCount) {
+    this.requestCount = requestCount;
+  }
+
+  public long getTotalMs() {
+    return totalMs;
+  }
+
+  public void setTotalMs(long totalMs) {
+    this.totalMs = totalMs;
+  }
+
+  public long getMaxMs() {
+    return maxMs;
+  }
+
+  public void setMaxMs(long maxMs) {
+    this.maxMs = maxMs;
+  }
+
+  public long[] getHistogram() {
+    return histogram;
+  }
+
+  public void setHistogram(long[] histogram) {
+    this.histogram = histogram;
+  }
+}
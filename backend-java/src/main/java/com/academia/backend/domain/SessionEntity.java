@@ -6,7 +6,11 @@ import java.time.Instant;
 import java.util.UUID;
 
 @Entity
-@Table(name = "sessions")
+@Table(name = "sessions", indexes = {
+    @Index(name = "idx_sessions_user_id", columnList = "user_id"),
+    @Index(name = "idx_sessions_expires_at", columnList = "expires_at"),
+    @Index(name = "idx_sessions_previous_refresh_token_hash", columnList = "previous_refresh_token_hash")
+})
 public class SessionEntity {
   @Id
   @Column(columnDefinition = "uuid")
@@ -18,6 +22,12 @@ public class SessionEntity {
   @Column(name = "refresh_token_hash", nullable = false, unique = true, columnDefinition = "bytea")
   private byte[] refreshTokenHash;
 
+  // Hash anterior a la última rotación, válido durante la ventana de gracia del refresh
+  @Column(name = "previous_refresh_token_hash", columnDefinition = "bytea")
+  private byte[] previousRefreshTokenHash;
+  @Column(name = "rotated_at")
+  private Instant rotatedAt;
+
   @Column(name = "created_at", nullable = false)
   private Instant createdAt;
   @Column(name = "last_used_at")
@@ -26,6 +36,8 @@ public class SessionEntity {
   private Instant expiresAt;
   @Column(name = "is_revoked", nullable = false)
   private boolean revoked = false;
+  @Column(name = "revoked_at")
+  private Instant revokedAt;
     @Column(name = "ip")
   private InetAddress ip;
   @Column(name = "user_agent")
@@ -64,6 +76,22 @@ public class SessionEntity {
     this.refreshTokenHash = refreshTokenHash;
   }
 
+  public byte[] getPreviousRefreshTokenHash() {
+    return previousRefreshTokenHash;
+  }
+
+  public void setPreviousRefreshTokenHash(byte[] previousRefreshTokenHash) {
+    this.previousRefreshTokenHash = previousRefreshTokenHash;
+  }
+
+  public Instant getRotatedAt() {
+    return rotatedAt;
+  }
+
+  public void setRotatedAt(Instant rotatedAt) {
+    this.rotatedAt = rotatedAt;
+  }
+
   public Instant getCreatedAt() {
     return createdAt;
   }
@@ -93,9 +121,19 @@ public class SessionEntity {
   }
 
   public void setRevoked(boolean revoked) {
+    if (revoked && !this.revoked)
+      revokedAt = Instant.now();
     this.revoked = revoked;
   }
 
+  public Instant getRevokedAt() {
+    return revokedAt;
+  }
+
+  public void setRevokedAt(Instant revokedAt) {
+    this.revokedAt = revokedAt;
+  }
+
   public InetAddress getIp() {
     return ip;
   }
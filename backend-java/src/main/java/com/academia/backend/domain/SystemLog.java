@@ -6,11 +6,15 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "system_logs", indexes = {
-    @Index(name = "idx_log_level", columnList = "log_level"),
-    @Index(name = "idx_created_at", columnList = "created_at"),
-    @Index(name = "idx_module", columnList = "module")
+    @Index(name = "idx_log_level", columnList = "log_level, created_at"),
+    @Index(name = "idx_system_logs_created_at", columnList = "created_at"),
+    @Index(name = "idx_module", columnList = "module_id, created_at"),
+    @Index(name = "idx_system_logs_user_created", columnList = "user_id, created_at"),
+    @Index(name = "idx_system_logs_status_created", columnList = "status_code, created_at"),
+    @Index(name = "idx_system_logs_path_created", columnList = "request_path_id, created_at")
 })
 public class SystemLog {
+  // En BD la PK es (id, created_at) porque la tabla está particionada por día (SystemLogPartitionManager)
   @Id
   @Column(columnDefinition = "uuid")
   private UUID id;
@@ -18,11 +22,12 @@ public class SystemLog {
   @Column(name = "log_level", nullable = false, length = 20)
   private String logLevel; // INFO, ERROR, WARN, DEBUG
 
-  @Column(nullable = false, length = 100)
-  private String module; // Auth, Course, Payment, etc.
+  // module, action, user_agent y request_path se guardan como ids de log_dictionary
+  @Column(name = "module_id", nullable = false)
+  private Integer moduleId; // Auth, Course, Payment, etc.
 
-  @Column(nullable = false, length = 200)
-  private String action;
+  @Column(name = "action_id", nullable = false)
+  private Integer actionId;
 
   @Column(columnDefinition = "text")
   private String message;
@@ -34,11 +39,11 @@ public class SystemLog {
   @Column(name = "ip_address", columnDefinition = "text")
   private String ipAddress;
 
-  @Column(name = "user_agent", columnDefinition = "text")
-  private String userAgent;
+  @Column(name = "user_agent_id")
+  private Integer userAgentId;
 
-  @Column(name = "request_path")
-  private String requestPath;
+  @Column(name = "request_path_id")
+  private Integer requestPathId;
 
   @Column(name = "request_method", length = 10)
   private String requestMethod;
@@ -49,8 +54,13 @@ public class SystemLog {
   @Column(name = "duration_ms")
   private Long durationMs;
 
-  @Column(name = "stack_trace", columnDefinition = "text")
-  private String stackTrace;
+  // Huella del stack trace en log_stack_traces
+  @Column(name = "stack_fingerprint")
+  private Long stackFingerprint;
+
+  // Id de correlación de la request (X-Request-Id)
+  @Column(name = "correlation_id", length = 64)
+  private String correlationId;
 
   @Column(name = "additional_data", columnDefinition = "jsonb")
   @org.hibernate.annotations.JdbcTypeCode(org.hibernate.type.SqlTypes.JSON)
@@ -84,20 +94,20 @@ public class SystemLog {
     this.logLevel = logLevel;
   }
 
-  public String getModule() {
-    return module;
+  public Integer getModuleId() {
+    return moduleId;
   }
 
-  public void setModule(String module) {
-    this.module = module;
+  public void setModuleId(Integer moduleId) {
+    this.moduleId = moduleId;
   }
 
-  public String getAction() {
-    return action;
+  public Integer getActionId() {
+    return actionId;
   }
 
-  public void setAction(String action) {
-    this.action = action;
+  public void setActionId(Integer actionId) {
+    this.actionId = actionId;
   }
 
   public String getMessage() {
@@ -124,20 +134,20 @@ public class SystemLog {
     this.ipAddress = ipAddress;
   }
 
-  public String getUserAgent() {
-    return userAgent;
+  public Integer getUserAgentId() {
+    return userAgentId;
   }
 
-  public void setUserAgent(String userAgent) {
-    this.userAgent = userAgent;
+  public void setUserAgentId(Integer userAgentId) {
+    this.userAgentId = userAgentId;
   }
 
-  public String getRequestPath() {
-    return requestPath;
+  public Integer getRequestPathId() {
+    return requestPathId;
   }
 
-  public void setRequestPath(String requestPath) {
-    this.requestPath = requestPath;
+  public void setRequestPathId(Integer requestPathId) {
+    this.requestPathId = requestPathId;
   }
 
   public String getRequestMethod() {
@@ -148,6 +158,14 @@ public class SystemLog {
     this.requestMethod = requestMethod;
   }
 
+  public String getCorrelationId() {
+    return correlationId;
+  }
+
+  public void setCorrelationId(String correlationId) {
+    this.correlationId = correlationId;
+  }
+
   public Integer getStatusCode() {
     return statusCode;
   }
@@ -164,12 +182,12 @@ public class SystemLog {
     this.durationMs = durationMs;
   }
 
-  public String getStackTrace() {
-    return stackTrace;
+  public Long getStackFingerprint() {
+    return stackFingerprint;
   }
 
-  public void setStackTrace(String stackTrace) {
-    this.stackTrace = stackTrace;
+  public void setStackFingerprint(Long stackFingerprint) {
+    this.stackFingerprint = stackFingerprint;
   }
 
   public String getAdditionalData() {
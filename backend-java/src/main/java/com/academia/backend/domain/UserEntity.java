@@ -56,6 +56,10 @@ public class UserEntity {
   @Column(name = "created_at", nullable = false)
   private Instant createdAt;
 
+  // Los access tokens del usuario emitidos antes de este momento quedan revocados
+  @Column(name = "tokens_valid_after")
+  private Instant tokensValidAfter;
+
   @PrePersist
   void pre() {
     if (id == null)
@@ -168,6 +172,14 @@ public class UserEntity {
     this.createdAt = createdAt;
   }
 
+  public Instant getTokensValidAfter() {
+    return tokensValidAfter;
+  }
+
+  public void setTokensValidAfter(Instant tokensValidAfter) {
+    this.tokensValidAfter = tokensValidAfter;
+  }
+
   public Role getRole() {
     return roleEntity != null ? Role.valueOf(roleEntity.getName()) : Role.STUDENT;
   }
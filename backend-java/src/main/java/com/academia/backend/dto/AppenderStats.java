@@ -0,0 +1,11 @@
+package com.academia.backend.dto;
+
+// Contadores de un appender asíncrono de logback
+public record AppenderStats(
+  String name,
+  int queueSize,
+  int remainingCapacity,
+  long appended,
+  long discarded,
+  long dropped
+) {}
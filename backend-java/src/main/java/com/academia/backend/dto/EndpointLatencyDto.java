@@ -0,0 +1,14 @@
+package com.academia.backend.dto;
+
+public record EndpointLatencyDto(
+  String requestMethod,
+  String endpoint,
+  String statusClass,
+  long requestCount,
+  double throughputPerSecond,
+  double avgMs,
+  long p50Ms,
+  long p95Ms,
+  long p99Ms,
+  long maxMs
+) {}
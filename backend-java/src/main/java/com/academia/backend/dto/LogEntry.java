@@ -0,0 +1,24 @@
+package com.academia.backend.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// Fila de system_logs capturada en el hilo del llamador, pendiente de escritura
+public record LogEntry(
+  UUID id,
+  String logLevel,
+  String module,
+  String action,
+  String message,
+  UUID userId,
+  String ipAddress,
+  String userAgent,
+  String requestPath,
+  String requestMethod,
+  Integer statusCode,
+  Long durationMs,
+  String stackTrace,
+  Long stackFingerprint,
+  String correlationId,
+  Instant createdAt
+) {}
@@ -0,0 +1,11 @@
+package com.academia.backend.dto;
+
+import com.academia.backend.domain.LogPolicyAction;
+
+// Regla de persistencia por módulo y nivel ("*" = cualquiera)
+public record LogPolicyDto(
+  String module,
+  String logLevel,
+  LogPolicyAction action,
+  Double sampleRate
+) {}
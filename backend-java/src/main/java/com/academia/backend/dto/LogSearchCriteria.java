@@ -0,0 +1,16 @@
+package com.academia.backend.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// Filtros combinables de /api/logs/search; los nulos no filtran
+public record LogSearchCriteria(
+  String level,
+  String module,
+  UUID userId,
+  Integer statusCode,
+  String pathPrefix,
+  Instant from,
+  Instant to,
+  String text
+) {}
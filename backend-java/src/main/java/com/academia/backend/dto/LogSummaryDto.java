@@ -0,0 +1,20 @@
+package com.academia.backend.dto;
+
+import java.util.UUID;
+
+// Vista ligera de un log para listados: sin user agent ni stack trace (se pide por su huella)
+public record LogSummaryDto(
+  UUID id,
+  String logLevel,
+  String module,
+  String action,
+  String message,
+  UUID userId,
+  String requestMethod,
+  String requestPath,
+  Integer statusCode,
+  Long durationMs,
+  String stackFingerprint,
+  String correlationId,
+  String createdAt
+) {}
@@ -0,0 +1,12 @@
+package com.academia.backend.dto;
+
+public record LogWriterStats(
+  int queueDepth,
+  int queueCapacity,
+  String overflowPolicy,
+  long enqueued,
+  long written,
+  long dropped,
+  long failed,
+  long batches
+) {}
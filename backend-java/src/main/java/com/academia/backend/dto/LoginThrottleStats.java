@@ -0,0 +1,12 @@
+package com.academia.backend.dto;
+
+// Estado del limitador de intentos de login/refresh
+public record LoginThrottleStats(
+  int capacity,
+  int entries,
+  int blockedKeys,
+  long rejected,
+  long blocksIssued,
+  long evictions,
+  long swept
+) {}
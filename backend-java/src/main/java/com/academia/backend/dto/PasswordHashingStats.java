@@ -0,0 +1,22 @@
+package com.academia.backend.dto;
+
+// Estado del pool de hashing Argon2 (tiempos en ms)
+public record PasswordHashingStats(
+  long paramsVersion,
+  int memoryKb,
+  int iterations,
+  int parallelism,
+  int threads,
+  int active,
+  int queued,
+  int queueCapacity,
+  long completed,
+  long rejected,
+  long timedOut,
+  long rehashed,
+  long queueWaitP50Ms,
+  long queueWaitP99Ms,
+  long queueWaitMaxMs,
+  long hashP50Ms,
+  long hashP99Ms
+) {}
@@ -0,0 +1,26 @@
+package com.academia.backend.dto;
+
+import java.util.List;
+import java.util.Map;
+
+// Reglas de muestreo de logs de requests; se reemplazan completas (inmutables)
+public record SamplingRules(
+  double successSampleRate,
+  double clientErrorSampleRate,
+  long slowThresholdMs,
+  Map<String, Long> moduleSlowThresholdMs,
+  List<String> alwaysKeepClientErrorPaths
+) {
+  public SamplingRules {
+    // Map.copyOf/List.copyOf lanzarían NPE con nulos; así el PUT responde 400 con un motivo
+    if (moduleSlowThresholdMs != null
+        && moduleSlowThresholdMs.entrySet().stream().anyMatch(e -> e.getKey() == null || e.getValue() == null)) {
+      throw new IllegalArgumentException("moduleSlowThresholdMs no admite módulos ni umbrales nulos");
+    }
+    if (alwaysKeepClientErrorPaths != null && alwaysKeepClientErrorPaths.stream().anyMatch(p -> p == null)) {
+      throw new IllegalArgumentException("alwaysKeepClientErrorPaths no admite rutas nulas");
+    }
+    moduleSlowThresholdMs = moduleSlowThresholdMs != null ? Map.copyOf(moduleSlowThresholdMs) : Map.of();
+    alwaysKeepClientErrorPaths = alwaysKeepClientErrorPaths != null ? List.copyOf(alwaysKeepClientErrorPaths) : List.of();
+  }
+}
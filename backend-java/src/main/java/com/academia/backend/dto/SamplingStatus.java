@@ -0,0 +1,10 @@
+package com.academia.backend.dto;
+
+import java.util.Map;
+
+public record SamplingStatus(
+  SamplingRules rules,
+  Map<String, ModuleCounters> modules
+) {
+  public record ModuleCounters(long seen, long kept, long sampledOut) {}
+}
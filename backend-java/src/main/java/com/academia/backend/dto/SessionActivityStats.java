@@ -0,0 +1,12 @@
+package com.academia.backend.dto;
+
+// Escritura diferida de la última actividad de las sesiones
+public record SessionActivityStats(
+  int pendingSessions,
+  long touches,
+  long rowsFlushed,
+  long statements,
+  long failures,
+  int lastFlushRows,
+  long lastFlushMillis
+) {}
@@ -0,0 +1,12 @@
+package com.academia.backend.dto;
+
+// Métricas de la caché de sesiones de JwtFilter
+public record SessionCacheStats(
+  long size,
+  long hits,
+  long misses,
+  double hitRate,
+  long evictions,
+  long loadFailures,
+  long averageLoadNanos
+) {}
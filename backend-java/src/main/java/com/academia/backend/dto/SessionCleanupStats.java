@@ -0,0 +1,16 @@
+package com.academia.backend.dto;
+
+import java.time.Instant;
+
+// Progreso de la limpieza de sesiones expiradas/revocadas
+public record SessionCleanupStats(
+  boolean running,
+  long currentRunDeleted,
+  Instant lastRunStartedAt,
+  long lastRunMillis,
+  long lastRunDeleted,
+  int lastRunBatches,
+  boolean lastRunComplete,
+  long totalDeleted,
+  long failedRuns
+) {}
@@ -0,0 +1,11 @@
+package com.academia.backend.dto;
+
+// Stack trace deduplicado con sus ocurrencias
+public record StackTraceDto(
+  String fingerprint,
+  String exceptionClass,
+  String stackTrace,
+  String firstSeen,
+  String lastSeen,
+  long occurrences
+) {}
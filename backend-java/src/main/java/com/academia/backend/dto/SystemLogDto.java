@@ -17,5 +17,6 @@ public record SystemLogDto(
   Integer statusCode,
   Long durationMs,
   String stackTrace,
+  String correlationId,
   String createdAt
 ) {}
@@ -0,0 +1,16 @@
+package com.academia.backend.dto;
+
+// Estado de las revocaciones en memoria del modo stateless de JwtFilter
+public record TokenRevocationStats(
+  boolean enabled,
+  boolean fresh,
+  int revokedSessions,
+  int userEpochs,
+  int bloomBits,
+  int pendingLocal,
+  long snapshotAgeMs,
+  long lastSyncMillis,
+  long syncs,
+  long syncFailures,
+  long rejectedTokens
+) {}
@@ -0,0 +1,9 @@
+package com.academia.backend.dto;
+
+// Búsquedas por email/username y caché de identificadores inexistentes
+public record UserLookupStats(
+  long lookups,
+  long indexProbes,
+  long negativeCacheHits,
+  long negativeCacheSize
+) {}
@@ -0,0 +1,21 @@
+package com.academia.backend.repo;
+
+import com.academia.backend.domain.LogDictionaryEntry;
+import com.academia.backend.domain.LogDictionaryKind;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface LogDictionaryRepo extends JpaRepository<LogDictionaryEntry, Integer> {
+
+  Optional<LogDictionaryEntry> findByKindAndValue(LogDictionaryKind kind, String value);
+
+  // Ids cuyo valor contiene el texto (p.ej. rutas que contienen "/courses")
+  @Query("SELECT d.id FROM LogDictionaryEntry d WHERE d.kind = :kind AND d.value LIKE CONCAT('%', :text, '%')")
+  List<Integer> findIdsByKindAndValueContaining(@Param("kind") LogDictionaryKind kind, @Param("text") String text);
+}
@@ -0,0 +1,13 @@
+package com.academia.backend.repo;
+
+import com.academia.backend.domain.LogPolicy;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface LogPolicyRepo extends JpaRepository<LogPolicy, Long> {
+
+  Optional<LogPolicy> findByModuleAndLogLevel(String module, String logLevel);
+}
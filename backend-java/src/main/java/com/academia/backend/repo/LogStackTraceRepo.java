@@ -0,0 +1,14 @@
+package com.academia.backend.repo;
+
+import com.academia.backend.domain.LogStackTrace;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface LogStackTraceRepo extends JpaRepository<LogStackTrace, Long> {
+
+  // Errores más frecuentes
+  Page<LogStackTrace> findAllByOrderByOccurrencesDesc(Pageable pageable);
+}
@@ -0,0 +1,13 @@
+package com.academia.backend.repo;
+
+import com.academia.backend.domain.PasswordHashParams;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface PasswordHashParamsRepo extends JpaRepository<PasswordHashParams, Long> {
+
+  Optional<PasswordHashParams> findTopByOrderByIdDesc();
+}
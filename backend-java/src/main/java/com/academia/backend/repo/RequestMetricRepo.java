@@ -0,0 +1,28 @@
+package com.academia.backend.repo;
+
+import com.academia.backend.domain.RequestMetric;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface RequestMetricRepo extends JpaRepository<RequestMetric, Long> {
+
+  // Rollups cuyo minuto cae en [from, to)
+  List<RequestMetric> findByBucketStartGreaterThanEqualAndBucketStartLessThan(Instant from, Instant to);
+
+  List<RequestMetric> findByEndpointAndBucketStartGreaterThanEqualAndBucketStartLessThan(String endpoint,
+      Instant from, Instant to);
+
+  // Retención: rollups anteriores a :cutoff (usa idx_request_metrics_bucket)
+  @Transactional
+  @Modifying
+  @Query("DELETE FROM RequestMetric m WHERE m.bucketStart < :cutoff")
+  int deleteOlderThan(@Param("cutoff") Instant cutoff);
+}
@@ -2,11 +2,54 @@ package com.academia.backend.repo;
 
 import com.academia.backend.domain.SessionEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface SessionRepo extends JpaRepository<SessionEntity, UUID> {
   Optional<SessionEntity> findByRefreshTokenHash(byte[] hash);
+
+  // El hash actual o el anterior a la última rotación; el OR usa ambos índices (BitmapOr)
+  @Query("SELECT s FROM SessionEntity s WHERE s.refreshTokenHash = :hash OR s.previousRefreshTokenHash = :hash")
+  Optional<SessionEntity> findByCurrentOrPreviousRefreshHash(@Param("hash") byte[] hash);
+
+  // Rotación condicional: solo gana quien aún ve el hash que presentó el cliente
+  @Transactional
+  @Modifying
+  @Query("UPDATE SessionEntity s SET s.refreshTokenHash = :newHash, s.previousRefreshTokenHash = :oldHash, "
+      + "s.rotatedAt = :now "
+      + "WHERE s.id = :id AND s.refreshTokenHash = :oldHash AND s.revoked = false")
+  int rotateRefreshHash(@Param("id") UUID id, @Param("oldHash") byte[] oldHash, @Param("newHash") byte[] newHash,
+      @Param("now") Instant now);
+
+  // Las que revocaría revokeAllForUserExcept, para avisar a TokenRevocations
+  @Query("SELECT s.id FROM SessionEntity s WHERE s.userId = :userId "
+      + "AND s.revoked = false AND (:keepId IS NULL OR s.id <> :keepId)")
+  List<UUID> findActiveIdsForUserExcept(@Param("userId") UUID userId, @Param("keepId") UUID keepId);
+
+  @Modifying
+  @Query("UPDATE SessionEntity s SET s.revoked = true, s.revokedAt = :now WHERE s.userId = :userId "
+      + "AND s.revoked = false AND (:keepId IS NULL OR s.id <> :keepId)")
+  int revokeAllForUserExcept(@Param("userId") UUID userId, @Param("keepId") UUID keepId, @Param("now") Instant now);
+
+  // Sesiones revocadas desde :since, para TokenRevocations
+  @Query("SELECT s.id FROM SessionEntity s WHERE s.revoked = true AND s.revokedAt > :since")
+  List<UUID> findIdsRevokedSince(@Param("since") Instant since);
+
+  // Un lote de sesiones expiradas o revocadas hace tiempo, cada lote en su propia transacción.
+  // SKIP LOCKED: varias instancias pueden limpiar a la vez sin esperarse entre sí
+  @Transactional
+  @Modifying
+  @Query(value = "DELETE FROM sessions WHERE id IN (SELECT id FROM sessions WHERE expires_at < :now "
+      + "OR (is_revoked AND COALESCE(last_used_at, created_at) < :revokedBefore) "
+      + "LIMIT :batchSize FOR UPDATE SKIP LOCKED)", nativeQuery = true)
+  int deleteStaleBatch(@Param("now") Instant now, @Param("revokedBefore") Instant revokedBefore,
+      @Param("batchSize") int batchSize);
 }
 
@@ -10,23 +10,30 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface SystemLogRepo extends JpaRepository<SystemLog, UUID> {
   
+  // Todas las consultas acotan created_at para que Postgres solo recorra las particiones necesarias
+
+  // Buscar logs recientes
+  Page<SystemLog> findByCreatedAtAfterOrderByCreatedAtDesc(Instant since, Pageable pageable);
+  
   // Buscar logs por nivel
-  Page<SystemLog> findByLogLevelOrderByCreatedAtDesc(String logLevel, Pageable pageable);
+  Page<SystemLog> findByLogLevelAndCreatedAtAfterOrderByCreatedAtDesc(String logLevel, Instant since, Pageable pageable);
   
-  // Buscar logs por módulo
-  Page<SystemLog> findByModuleOrderByCreatedAtDesc(String module, Pageable pageable);
+  // Buscar logs por módulo (id de log_dictionary)
+  Page<SystemLog> findByModuleIdAndCreatedAtAfterOrderByCreatedAtDesc(Integer moduleId, Instant since, Pageable pageable);
   
   // Buscar logs por usuario
-  Page<SystemLog> findByUserOrderByCreatedAtDesc(UserEntity user, Pageable pageable);
+  Page<SystemLog> findByUserAndCreatedAtAfterOrderByCreatedAtDesc(UserEntity user, Instant since, Pageable pageable);
   
   // Buscar logs por nivel y módulo
-  Page<SystemLog> findByLogLevelAndModuleOrderByCreatedAtDesc(String logLevel, String module, Pageable pageable);
+  Page<SystemLog> findByLogLevelAndModuleIdAndCreatedAtAfterOrderByCreatedAtDesc(String logLevel, Integer moduleId,
+      Instant since, Pageable pageable);
   
   // Buscar logs en un rango de fechas
   @Query("SELECT l FROM SystemLog l WHERE l.createdAt BETWEEN :startDate AND :endDate ORDER BY l.createdAt DESC")
@@ -36,14 +43,15 @@ public interface SystemLogRepo extends JpaRepository<SystemLog, UUID> {
   @Query("SELECT l FROM SystemLog l WHERE l.logLevel = 'ERROR' AND l.createdAt > :since ORDER BY l.createdAt DESC")
   List<SystemLog> findRecentErrors(@Param("since") Instant since);
   
-  // Contar errores por módulo
-  @Query("SELECT l.module, COUNT(l) FROM SystemLog l WHERE l.logLevel = 'ERROR' AND l.createdAt > :since GROUP BY l.module")
+  // Contar errores por módulo (devuelve id de módulo y total)
+  @Query("SELECT l.moduleId, COUNT(l) FROM SystemLog l WHERE l.logLevel = 'ERROR' AND l.createdAt > :since GROUP BY l.moduleId")
   List<Object[]> countErrorsByModule(@Param("since") Instant since);
   
-  // Buscar logs por ruta de request
-  Page<SystemLog> findByRequestPathContainingOrderByCreatedAtDesc(String path, Pageable pageable);
+  // Buscar logs por ruta de request (ids obtenidos de LogDictionary)
+  Page<SystemLog> findByRequestPathIdInAndCreatedAtAfterOrderByCreatedAtDesc(Collection<Integer> pathIds, Instant since,
+      Pageable pageable);
   
   // Buscar logs con stack trace (errores)
-  @Query("SELECT l FROM SystemLog l WHERE l.stackTrace IS NOT NULL ORDER BY l.createdAt DESC")
-  Page<SystemLog> findLogsWithStackTrace(Pageable pageable);
+  @Query("SELECT l FROM SystemLog l WHERE l.stackFingerprint IS NOT NULL AND l.createdAt > :since ORDER BY l.createdAt DESC")
+  Page<SystemLog> findLogsWithStackTrace(@Param("since") Instant since, Pageable pageable);
 }
@@ -2,9 +2,13 @@ package com.academia.backend.repo;
 
 import com.academia.backend.domain.UserEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -12,7 +16,24 @@ public interface UserRepo extends JpaRepository<UserEntity, UUID> {
   Optional<UserEntity> findByEmail(String email);
   Optional<UserEntity> findByUsername(String username);
   
-  @Query("SELECT u FROM UserEntity u WHERE u.email = :identifier OR u.username = :identifier")
-  Optional<UserEntity> findByEmailOrUsername(@Param("identifier") String identifier);
-}
+  // Sondas por los índices de lower(email) y lower(username) que crea UserLookup; key ya en minúsculas.
+  // Si hay cuentas que solo difieren en mayúsculas (anteriores al índice único) devuelve todas, con la
+  // que coincide exactamente con lo escrito primero y después la más antigua
+  @Query("SELECT u.id FROM UserEntity u WHERE lower(u.email) = :key "
+      + "ORDER BY CASE WHEN u.email = :raw THEN 0 ELSE 1 END, u.createdAt, u.id")
+  List<UUID> findIdsByNormalizedEmail(@Param("key") String key, @Param("raw") String raw);
+
+  @Query("SELECT u.id FROM UserEntity u WHERE lower(u.username) = :key "
+      + "ORDER BY CASE WHEN u.username = :raw THEN 0 ELSE 1 END, u.createdAt, u.id")
+  List<UUID> findIdsByNormalizedUsername(@Param("key") String key, @Param("raw") String raw);
 
+  // Solo si el hash no cambió entretanto (p.ej. un cambio de contraseña concurrente)
+  @Transactional
+  @Modifying
+  @Query("UPDATE UserEntity u SET u.passwordHash = :newHash WHERE u.id = :id AND u.passwordHash = :oldHash")
+  int replacePasswordHash(@Param("id") UUID id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
+
+  // [id, tokensValidAfter] de los usuarios con revocación posterior a :since, para TokenRevocations
+  @Query("SELECT u.id, u.tokensValidAfter FROM UserEntity u WHERE u.tokensValidAfter > :since")
+  List<Object[]> findTokenEpochsSince(@Param("since") Instant since);
+}
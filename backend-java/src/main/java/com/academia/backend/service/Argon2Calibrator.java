@@ -0,0 +1,138 @@
+package com.academia.backend.service;
+
+import com.academia.backend.domain.PasswordHashParams;
+import com.academia.backend.repo.PasswordHashParamsRepo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Elige los parámetros Argon2 para que un hash tarde ~targetMs en esta máquina y los guarda
+ * versionados en password_hash_params. Al arrancar se aplica la última versión guardada; con
+ * calibration.enabled se mide y, si el resultado cambia, se guarda como versión nueva.
+ * Primero se usa toda la memoria permitida (lo que más encarece los ataques con GPU); si ni
+ * con minIterations se llega, se baja la memoria. Después se suben las iteraciones hasta el objetivo.
+ */
+@Service
+public class Argon2Calibrator {
+
+    private static final Logger logger = LoggerFactory.getLogger(Argon2Calibrator.class);
+
+    private static final String SAMPLE_PASSWORD = "calibration-Password-1234";
+    private static final int MEASURE_RUNS = 3;
+
+    private final PasswordHasher passwordHasher;
+    private final PasswordHashParamsRepo paramsRepo;
+
+    @Value("${app.auth.hashing.calibration.enabled:false}")
+    boolean enabled;
+    @Value("${app.auth.hashing.calibration.targetMs:250}")
+    int targetMs;
+    // Mínimos de OWASP para argon2id (19 MiB, t=2)
+    @Value("${app.auth.hashing.calibration.minMemoryKb:19456}")
+    int minMemoryKb;
+    @Value("${app.auth.hashing.calibration.maxMemoryKb:65536}")
+    int maxMemoryKb;
+    @Value("${app.auth.hashing.calibration.minIterations:2}")
+    int minIterations;
+    @Value("${app.auth.hashing.calibration.maxIterations:10}")
+    int maxIterations;
+
+    public Argon2Calibrator(PasswordHasher passwordHasher, PasswordHashParamsRepo paramsRepo) {
+        this.passwordHasher = passwordHasher;
+        this.paramsRepo = paramsRepo;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        Optional<PasswordHashParams> stored = Optional.empty();
+        try {
+            stored = paramsRepo.findTopByOrderByIdDesc();
+            stored.ifPresent(row -> passwordHasher.apply(toParams(row)));
+        } catch (Exception e) {
+            logger.warn("No se pudieron leer los parámetros Argon2 guardados: {}", e.getMessage());
+        }
+        if (!enabled) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        PasswordHashParams chosen = calibrate();
+        logger.info("Calibración Argon2 en {} ms: m={} KiB, t={}, p={} -> {} ms por hash (objetivo {} ms)",
+                System.currentTimeMillis() - start, chosen.getMemoryKb(), chosen.getIterations(),
+                chosen.getParallelism(), chosen.getMeasuredMs(), targetMs);
+
+        if (stored.isPresent() && toParams(stored.get())
+                .sameCost(chosen.getMemoryKb(), chosen.getIterations(), chosen.getParallelism())) {
+            return;
+        }
+        try {
+            passwordHasher.apply(toParams(paramsRepo.save(chosen)));
+        } catch (Exception e) {
+            logger.error("No se pudieron guardar los parámetros Argon2 calibrados: {}", e.getMessage());
+        }
+    }
+
+    PasswordHashParams calibrate() {
+        // p=1: el Argon2 de BouncyCastle no paraleliza los carriles, más p solo añade tiempo
+        int parallelism = 1;
+        int memoryKb = Math.max(minMemoryKb, Math.min(maxMemoryKb, passwordHasher.maxMemoryPerHashKb()));
+        int iterations = minIterations;
+
+        long ms = measure(memoryKb, iterations, parallelism);
+        while (ms > targetMs && memoryKb / 2 >= minMemoryKb) {
+            memoryKb /= 2;
+            ms = measure(memoryKb, iterations, parallelism);
+        }
+        // El coste es aproximadamente lineal en t
+        double perIteration = (double) ms / iterations;
+        iterations = (int) Math.max(minIterations, Math.min(maxIterations, Math.floor(targetMs / perIteration)));
+        if (iterations != minIterations) {
+            ms = measure(memoryKb, iterations, parallelism);
+        }
+
+        PasswordHashParams row = new PasswordHashParams();
+        row.setMemoryKb(memoryKb);
+        row.setIterations(iterations);
+        row.setParallelism(parallelism);
+        row.setTargetMs(targetMs);
+        row.setMeasuredMs((int) ms);
+        row.setHost(hostName());
+        return row;
+    }
+
+    // Mediana de varias ejecuciones tras una de calentamiento
+    private static long measure(int memoryKb, int iterations, int parallelism) {
+        Argon2PasswordEncoder encoder = new PasswordHasher.Argon2Params(0, memoryKb, iterations, parallelism).encoder();
+        encoder.encode(SAMPLE_PASSWORD);
+        long[] samples = new long[MEASURE_RUNS];
+        for (int i = 0; i < MEASURE_RUNS; i++) {
+            long t0 = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            samples[i] = (System.nanoTime() - t0) / 1_000_000;
+        }
+        Arrays.sort(samples);
+        return samples[MEASURE_RUNS / 2];
+    }
+
+    private static PasswordHasher.Argon2Params toParams(PasswordHashParams row) {
+        return new PasswordHasher.Argon2Params(row.getId(), row.getMemoryKb(), row.getIterations(),
+                row.getParallelism());
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
@@ -14,8 +14,9 @@ import com.academia.backend.repo.UserRepo;
 import java.net.InetAddress;
 import jakarta.servlet.http.Cookie;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
@@ -26,6 +27,7 @@ import java.security.SecureRandom;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Base64;
+import java.util.List;
 import java.util.UUID;
 
 @Service
@@ -34,8 +36,12 @@ public class AuthService {
   private final SessionRepo sessions;
   private final RoleRepo roles;
   private final JwtService jwt;
+  private final SessionCache sessionCache;
+  private final PasswordHasher passwordHasher;
+  private final TokenRevocations revocations;
+  private final UserLookup lookup;
+  private final TransactionTemplate tx;
   private final SecureRandom rnd = new SecureRandom();
-  private final Argon2PasswordEncoder argon = Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8();
 
   private static final String USER_NOT_FOUND = "Usuario no encontrado";
   private static final String INCORRECT_PASSWORD = "La contraseña actual es incorrecta";
@@ -56,19 +62,40 @@ public class AuthService {
   @Value("${cookies.path:/}")
   String cookiePath;
 
-  public AuthService(UserRepo users, SessionRepo sessions, RoleRepo roles, JwtService jwt) {
+  public AuthService(UserRepo users, SessionRepo sessions, RoleRepo roles, JwtService jwt,
+      SessionCache sessionCache, PasswordHasher passwordHasher, TokenRevocations revocations,
+      UserLookup lookup, TransactionTemplate tx) {
     this.users = users;
     this.sessions = sessions;
     this.roles = roles;
     this.jwt = jwt;
+    this.sessionCache = sessionCache;
+    this.passwordHasher = passwordHasher;
+    this.revocations = revocations;
+    this.lookup = lookup;
+    this.tx = tx;
   }
 
+  // Argon2 en el pool acotado de PasswordHasher; puede lanzar HashingUnavailableException
   public String hashPassword(String raw) {
-    return argon.encode(raw);
+    return passwordHasher.hash(raw);
   }
 
   public boolean verifyPassword(String hash, String raw) {
-    return argon.matches(raw, hash);
+    return passwordHasher.matches(raw, hash);
+  }
+
+  // Verifica y, si el hash quedó con parámetros Argon2 antiguos, lo regenera en segundo plano
+  public boolean verifyPassword(UserEntity user, String raw) {
+    String hash = user.getPasswordHash();
+    if (!passwordHasher.matches(raw, hash)) {
+      return false;
+    }
+    if (passwordHasher.needsRehash(hash)) {
+      UUID userId = user.getId();
+      passwordHasher.rehashInBackground(raw, newHash -> users.replacePasswordHash(userId, hash, newHash));
+    }
+    return true;
   }
 
   public String genRandomUrlToken() {
@@ -99,7 +126,7 @@ public class AuthService {
   }
 
   public TokenOut mint(UserEntity user, SessionEntity row, String csrf) {
-    String access = jwt.mintAccess(user.getId().toString(), row.getId().toString());
+    String access = jwt.mintAccess(user.getId().toString(), row.getId().toString(), user.getRole().name());
     return new TokenOut(access, csrf, user.getId());
   }
 
@@ -114,28 +141,44 @@ public class AuthService {
     return sessions.save(s);
   }
 
-  public void changePassword(UUID userId, String currentPassword, String newPassword) {
+  // Revoca las demás sesiones del usuario; currentSessionId (puede ser null) sigue activa.
+  // Argon2 (verificar y rehacer el hash) va fuera de la transacción: la conexión solo se ocupa
+  // para escribir el hash y revocar las sesiones
+  public void changePassword(UUID userId, String currentPassword, String newPassword, UUID currentSessionId) {
     UserEntity user = users.findById(userId)
         .orElseThrow(() -> new IllegalArgumentException(USER_NOT_FOUND));
+    String oldHash = user.getPasswordHash();
 
     // Verifica que la contraseña actual sea correcta
-    if (!verifyPassword(user.getPasswordHash(), currentPassword)) {
+    if (!verifyPassword(oldHash, currentPassword)) {
       throw new IllegalArgumentException(INCORRECT_PASSWORD);
     }
 
     // Verifica que la nueva contraseña sea diferente a la actual
-    if (verifyPassword(user.getPasswordHash(), newPassword)) {
+    if (verifyPassword(oldHash, newPassword)) {
       throw new IllegalArgumentException(SAME_PASSWORD);
     }
 
-    // Actualiza la contraseña
-    user.setPasswordHash(hashPassword(newPassword));
-    users.save(user);
+    String newHash = hashPassword(newPassword);
+    List<UUID> revoked = tx.execute(status -> {
+      // Condicional sobre el hash verificado: si otro cambio se adelantó, este no lo pisa
+      if (users.replacePasswordHash(userId, oldHash, newHash) == 0) {
+        throw new IllegalArgumentException(INCORRECT_PASSWORD);
+      }
+      List<UUID> ids = sessions.findActiveIdsForUserExcept(userId, currentSessionId);
+      sessions.revokeAllForUserExcept(userId, currentSessionId, Instant.now());
+      return ids;
+    });
+    sessionCache.invalidateUser(userId);
+    // En modo stateless los access tokens de esas sesiones dejan de valer ya en esta instancia
+    revoked.forEach(revocations::revokeSession);
   }
 
+  @Transactional
   public void updateUser(UUID userId, UserDto updateData) {
     UserEntity user = users.findById(userId)
         .orElseThrow(() -> new IllegalArgumentException(USER_NOT_FOUND));
+    Role previousRole = user.getRole();
 
     updateEmailIfChanged(user, updateData);
     updateUsernameIfChanged(user, updateData);
@@ -143,24 +186,40 @@ public class AuthService {
     updateAddressIfProvided(user, updateData);
     updateAdminFields(user, updateData);
 
+    // El rol va en el access token y la renovación lo copia: se cierran las sesiones y se
+    // invalidan los tokens ya emitidos para que el nuevo rol se aplique en el próximo login
+    Instant now = Instant.now();
+    boolean roleChanged = user.getRole() != previousRole;
+    if (roleChanged) {
+      user.setTokensValidAfter(now);
+    }
     users.save(user);
+
+    if (roleChanged) {
+      sessions.revokeAllForUserExcept(userId, null, now);
+      sessionCache.invalidateUser(userId);
+      revocations.revokeUser(userId, now);
+    }
   }
 
   private void updateEmailIfChanged(UserEntity user, UserDto updateData) {
     if (updateData.getCorreo() != null && !updateData.getCorreo().equals(user.getEmail())) {
-      if (users.findByEmail(updateData.getCorreo()).isPresent()) {
+      // Sin distinguir mayúsculas; cambiar solo las mayúsculas del propio email está permitido
+      if (lookup.emailInUse(updateData.getCorreo(), user.getId())) {
         throw new IllegalArgumentException(EMAIL_IN_USE);
       }
       user.setEmail(updateData.getCorreo());
+      lookup.forget(updateData.getCorreo());
     }
   }
 
   private void updateUsernameIfChanged(UserEntity user, UserDto updateData) {
     if (updateData.getUsername() != null && !updateData.getUsername().equals(user.getUsername())) {
-      if (users.findByUsername(updateData.getUsername()).isPresent()) {
+      if (lookup.usernameInUse(updateData.getUsername(), user.getId())) {
         throw new IllegalArgumentException(USERNAME_IN_USE);
       }
       user.setUsername(updateData.getUsername());
+      lookup.forget(updateData.getUsername());
     }
   }
 
@@ -248,9 +307,9 @@ public class AuthService {
       return getUserInfo(id);
     } catch (IllegalArgumentException e) {
       // No es UUID, busca por email o username
-      UserEntity user = users.findByEmailOrUsername(identifier)
+      UUID id = lookup.resolveId(identifier)
           .orElseThrow(() -> new IllegalArgumentException(USER_NOT_FOUND));
-      return getUserInfo(user.getId());
+      return getUserInfo(id);
     }
   }
 
@@ -0,0 +1,295 @@
+package com.academia.backend.service;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.security.SignatureException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+
+/**
+ * Codificador HS256 para la forma fija de nuestros access tokens:
+ * {"sub":"..","sid":"..","role":"..","iat":n,"exp":n} (role opcional), con cabecera {"alg":"HS256"}.
+ * Escribe y lee los bytes directamente (sin Map, Date ni Jackson) y reutiliza un Mac por hilo.
+ * El resultado es un JWT estándar que cualquier librería verifica. decode() devuelve null para
+ * todo lo que no tenga exactamente esta forma y JwtService lo pasa entonces por jjwt.
+ */
+final class CompactJwtCodec {
+
+    // Misma cabecera que escribe jjwt para HS256 sin kid
+    private static final String HEADER = "eyJhbGciOiJIUzI1NiJ9.";
+    private static final byte[] HEADER_BYTES = HEADER.getBytes(StandardCharsets.US_ASCII);
+    private static final int SIGNATURE_BYTES = 32;
+    private static final int SIGNATURE_CHARS = 43;
+
+    private static final byte[] SUB = ascii("{\"sub\":\"");
+    private static final byte[] SID = ascii("\",\"sid\":\"");
+    private static final byte[] ROLE = ascii("\",\"role\":\"");
+    private static final byte[] IAT = ascii("\",\"iat\":");
+    private static final byte[] EXP = ascii(",\"exp\":");
+
+    private static final byte[] ALPHABET =
+            ascii("ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_");
+    private static final byte[] DECODE = new byte[128];
+
+    static {
+        Arrays.fill(DECODE, (byte) -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            DECODE[ALPHABET[i]] = (byte) i;
+        }
+    }
+
+    private final ThreadLocal<Mac> macs;
+
+    CompactJwtCodec(SecretKey key) {
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance("HmacSHA256");
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256 no disponible", e);
+            }
+        });
+    }
+
+    // null si algún valor necesitaría escaparse en JSON
+    String encode(String sub, String sid, String role, long issuedAt, long expiresAt) {
+        if (!isPlain(sub) || !isPlain(sid) || (role != null && !isPlain(role)) || issuedAt < 0 || expiresAt < 0) {
+            return null;
+        }
+        int jsonLength = SUB.length + sub.length() + SID.length + sid.length()
+                + (role != null ? ROLE.length + role.length() : 0)
+                + IAT.length + digits(issuedAt) + EXP.length + digits(expiresAt) + 1;
+        byte[] json = new byte[jsonLength];
+        int p = put(json, 0, SUB);
+        p = putAscii(json, p, sub);
+        p = put(json, p, SID);
+        p = putAscii(json, p, sid);
+        if (role != null) {
+            p = put(json, p, ROLE);
+            p = putAscii(json, p, role);
+        }
+        p = put(json, p, IAT);
+        p = putLong(json, p, issuedAt);
+        p = put(json, p, EXP);
+        p = putLong(json, p, expiresAt);
+        json[p] = '}';
+
+        int payloadChars = (jsonLength * 4 + 2) / 3;
+        byte[] out = new byte[HEADER_BYTES.length + payloadChars + 1 + SIGNATURE_CHARS];
+        System.arraycopy(HEADER_BYTES, 0, out, 0, HEADER_BYTES.length);
+        int dot = encodeBase64(json, json.length, out, HEADER_BYTES.length);
+        out[dot] = '.';
+        Mac mac = macs.get();
+        mac.update(out, 0, dot);
+        encodeBase64(mac.doFinal(), SIGNATURE_BYTES, out, dot + 1);
+        // Todo ASCII: el String queda en LATIN1 compacto con una sola copia
+        return new String(out, StandardCharsets.ISO_8859_1);
+    }
+
+    // Claims del token, o null si no tiene la forma que escribe encode()
+    JwtService.AccessClaims decode(String token) {
+        if (!token.startsWith(HEADER)) {
+            return null;
+        }
+        int dot = token.length() - SIGNATURE_CHARS - 1;
+        if (dot <= HEADER.length() || token.charAt(dot) != '.') {
+            return null;
+        }
+        byte[] bytes = token.getBytes(StandardCharsets.ISO_8859_1);
+        byte[] signature = new byte[SIGNATURE_BYTES];
+        if (decodeBase64(bytes, dot + 1, SIGNATURE_CHARS, signature) != SIGNATURE_BYTES) {
+            return null;
+        }
+        Mac mac = macs.get();
+        mac.update(bytes, 0, dot);
+        if (!MessageDigest.isEqual(mac.doFinal(), signature)) {
+            throw new SignatureException("JWT signature does not match locally computed signature");
+        }
+
+        int payloadChars = dot - HEADER_BYTES.length;
+        byte[] json = new byte[payloadChars * 3 / 4];
+        if (decodeBase64(bytes, HEADER_BYTES.length, payloadChars, json) != json.length) {
+            return null;
+        }
+        JwtService.AccessClaims claims = parse(json);
+        if (claims != null && System.currentTimeMillis() > claims.expiresAt() * 1000) {
+            throw new ExpiredJwtException(null, null, "JWT expired at " + claims.expiresAt());
+        }
+        return claims;
+    }
+
+    private static JwtService.AccessClaims parse(byte[] json) {
+        if (!matches(json, 0, SUB)) {
+            return null;
+        }
+        int p = SUB.length;
+        int end = stringEnd(json, p);
+        if (end < 0 || !matches(json, end, SID)) {
+            return null;
+        }
+        String sub = new String(json, p, end - p, StandardCharsets.ISO_8859_1);
+        p = end + SID.length;
+        end = stringEnd(json, p);
+        if (end < 0) {
+            return null;
+        }
+        String sid = new String(json, p, end - p, StandardCharsets.ISO_8859_1);
+        String role = null;
+        if (matches(json, end, ROLE)) {
+            p = end + ROLE.length;
+            end = stringEnd(json, p);
+            if (end < 0) {
+                return null;
+            }
+            role = new String(json, p, end - p, StandardCharsets.ISO_8859_1);
+        }
+        if (!matches(json, end, IAT)) {
+            return null;
+        }
+        p = end + IAT.length;
+        long issuedAt = 0;
+        int start = p;
+        while (p < json.length && json[p] >= '0' && json[p] <= '9' && p - start < 18) {
+            issuedAt = issuedAt * 10 + (json[p++] - '0');
+        }
+        if (p == start || !matches(json, p, EXP)) {
+            return null;
+        }
+        p += EXP.length;
+        long expiresAt = 0;
+        start = p;
+        while (p < json.length && json[p] >= '0' && json[p] <= '9' && p - start < 18) {
+            expiresAt = expiresAt * 10 + (json[p++] - '0');
+        }
+        if (p == start || p != json.length - 1 || json[p] != '}') {
+            return null;
+        }
+        return new JwtService.AccessClaims(sub, sid, role, issuedAt, expiresAt);
+    }
+
+    // Fin de una cadena JSON sin escapes; -1 si hay escapes o no termina
+    private static int stringEnd(byte[] json, int from) {
+        for (int i = from; i < json.length; i++) {
+            byte b = json[i];
+            if (b == '"') {
+                return i;
+            }
+            if (b == '\\' || b < 0x20) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean matches(byte[] json, int at, byte[] literal) {
+        return at + literal.length <= json.length
+                && Arrays.equals(json, at, at + literal.length, literal, 0, literal.length);
+    }
+
+    // UUIDs y nombres de Role: nada que escapar
+    private static boolean isPlain(String value) {
+        if (value == null || value.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '-' || c == '_')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int put(byte[] dst, int p, byte[] literal) {
+        System.arraycopy(literal, 0, dst, p, literal.length);
+        return p + literal.length;
+    }
+
+    private static int putAscii(byte[] dst, int p, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            dst[p++] = (byte) value.charAt(i);
+        }
+        return p;
+    }
+
+    private static int putLong(byte[] dst, int p, long value) {
+        int end = p + digits(value);
+        for (int i = end - 1; i >= p; i--) {
+            dst[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return end;
+    }
+
+    private static int digits(long value) {
+        int n = 1;
+        while (value >= 10) {
+            value /= 10;
+            n++;
+        }
+        return n;
+    }
+
+    // base64url sin relleno; devuelve la posición siguiente en dst
+    private static int encodeBase64(byte[] src, int length, byte[] dst, int p) {
+        int i = 0;
+        for (; i + 3 <= length; i += 3) {
+            int bits = (src[i] & 0xff) << 16 | (src[i + 1] & 0xff) << 8 | (src[i + 2] & 0xff);
+            dst[p++] = ALPHABET[bits >>> 18];
+            dst[p++] = ALPHABET[(bits >>> 12) & 0x3f];
+            dst[p++] = ALPHABET[(bits >>> 6) & 0x3f];
+            dst[p++] = ALPHABET[bits & 0x3f];
+        }
+        int rest = length - i;
+        if (rest > 0) {
+            int bits = (src[i] & 0xff) << 16 | (rest == 2 ? (src[i + 1] & 0xff) << 8 : 0);
+            dst[p++] = ALPHABET[bits >>> 18];
+            dst[p++] = ALPHABET[(bits >>> 12) & 0x3f];
+            if (rest == 2) {
+                dst[p++] = ALPHABET[(bits >>> 6) & 0x3f];
+            }
+        }
+        return p;
+    }
+
+    // Bytes escritos en dst, o -1 si hay caracteres fuera del alfabeto o el tamaño no cuadra
+    private static int decodeBase64(byte[] src, int off, int length, byte[] dst) {
+        if (length % 4 == 1 || dst.length < length * 3 / 4) {
+            return -1;
+        }
+        int p = 0;
+        int bits = 0;
+        int count = 0;
+        for (int i = off; i < off + length; i++) {
+            int c = src[i];
+            int v = c >= 0 && c < 128 ? DECODE[c] : -1;
+            if (v < 0) {
+                return -1;
+            }
+            bits = bits << 6 | v;
+            if (++count == 4) {
+                dst[p++] = (byte) (bits >>> 16);
+                dst[p++] = (byte) (bits >>> 8);
+                dst[p++] = (byte) bits;
+                bits = 0;
+                count = 0;
+            }
+        }
+        if (count == 3) {
+            dst[p++] = (byte) (bits >>> 10);
+            dst[p++] = (byte) (bits >>> 2);
+        } else if (count == 2) {
+            dst[p++] = (byte) (bits >>> 4);
+        }
+        return p;
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -42,19 +42,18 @@ public class CourseService {
     }
 
     // Crear curso (solo profesores)
-    public CourseDto createCourse(CreateCourseIn input, UUID teacherId) {
+    public CourseDto createCourse(CreateCourseIn input, UUID teacherId, Role role) {
         logService.logInfo(MODULE_COURSE, ACTION_CREATE_COURSE, "Creando nuevo curso: " + input.title(), teacherId);
 
-        UserEntity teacher = userRepo.findById(teacherId)
-                .orElseThrow(() -> new IllegalArgumentException(ERROR_USER_NOT_FOUND));
-
-        if (teacher.getRole() != Role.TEACHER && teacher.getRole() != Role.ADMIN
-                && teacher.getRole() != Role.SUPER_ADMIN) {
+        if (role != Role.TEACHER && role != Role.ADMIN && role != Role.SUPER_ADMIN) {
             logService.logError(MODULE_COURSE, ACTION_CREATE_COURSE, "Usuario no autorizado para crear cursos",
                     teacherId);
             throw new IllegalArgumentException(ERROR_ONLY_TEACHERS_CREATE);
         }
 
+        // El rol viene del token: basta una referencia para la FK del profesor
+        UserEntity teacher = userRepo.getReferenceById(teacherId);
+
         CourseEntity course = new CourseEntity();
         course.setTitle(input.title());
         course.setDescription(input.description());
@@ -86,17 +85,14 @@ public class CourseService {
     }
 
     // Actualizar curso
-    public CourseDto updateCourse(UUID courseId, UpdateCourseIn input, UUID userId) {
+    public CourseDto updateCourse(UUID courseId, UpdateCourseIn input, UUID userId, Role role) {
         logService.logInfo(MODULE_COURSE, ACTION_UPDATE_COURSE, "Actualizando curso: " + courseId, userId);
 
         CourseEntity course = courseRepo.findById(courseId)
                 .orElseThrow(() -> new IllegalArgumentException(ERROR_COURSE_NOT_FOUND));
 
-        UserEntity user = userRepo.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException(ERROR_USER_NOT_FOUND));
-
         // Solo el profesor del curso o admin pueden actualizar
-        if (!course.getTeacher().getId().equals(userId) && user.getRole() != Role.ADMIN) {
+        if (!course.getTeacher().getId().equals(userId) && role != Role.ADMIN) {
             logService.logError(MODULE_COURSE, ACTION_UPDATE_COURSE, "Usuario no autorizado para actualizar curso",
                     userId);
             throw new IllegalArgumentException(ERROR_NOT_AUTHORIZED_UPDATE);
@@ -136,16 +132,13 @@ public class CourseService {
     }
 
     // Publicar curso
-    public CourseDto publishCourse(UUID courseId, UUID userId) {
+    public CourseDto publishCourse(UUID courseId, UUID userId, Role role) {
         logService.logInfo(MODULE_COURSE, ACTION_PUBLISH_COURSE, "Publicando curso: " + courseId, userId);
 
         CourseEntity course = courseRepo.findById(courseId)
                 .orElseThrow(() -> new IllegalArgumentException(ERROR_COURSE_NOT_FOUND));
 
-        UserEntity user = userRepo.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException(ERROR_USER_NOT_FOUND));
-
-        if (!course.getTeacher().getId().equals(userId) && user.getRole() != Role.ADMIN) {
+        if (!course.getTeacher().getId().equals(userId) && role != Role.ADMIN) {
             logService.logError(MODULE_COURSE, ACTION_PUBLISH_COURSE, "Usuario no autorizado", userId);
             throw new IllegalArgumentException(ERROR_NOT_AUTHORIZED);
         }
@@ -206,16 +199,13 @@ public class CourseService {
     }
 
     // Eliminar curso (soft delete -> archived)
-    public void deleteCourse(UUID courseId, UUID userId) {
+    public void deleteCourse(UUID courseId, UUID userId, Role role) {
         logService.logInfo(MODULE_COURSE, ACTION_DELETE_COURSE, "Eliminando curso: " + courseId, userId);
 
         CourseEntity course = courseRepo.findById(courseId)
                 .orElseThrow(() -> new IllegalArgumentException(ERROR_COURSE_NOT_FOUND));
 
-        UserEntity user = userRepo.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException(ERROR_USER_NOT_FOUND));
-
-        if (!course.getTeacher().getId().equals(userId) && user.getRole() != Role.ADMIN) {
+        if (!course.getTeacher().getId().equals(userId) && role != Role.ADMIN) {
             logService.logError(MODULE_COURSE, ACTION_DELETE_COURSE, "Usuario no autorizado", userId);
             throw new IllegalArgumentException(ERROR_NOT_AUTHORIZED);
         }
@@ -99,20 +99,17 @@ public class EnrollmentService {
     }
 
     // Actualizar matrícula (progreso, estado, etc.)
-    public EnrollmentDto updateEnrollment(UUID enrollmentId, UpdateEnrollmentIn input, UUID userId) {
+    public EnrollmentDto updateEnrollment(UUID enrollmentId, UpdateEnrollmentIn input, UUID userId, Role role) {
         logService.logInfo(MODULE_ENROLLMENT, ACTION_UPDATE_ENROLLMENT,
                 "Actualizando matrícula: " + enrollmentId, userId);
 
         Enrollment enrollment = enrollmentRepo.findById(enrollmentId)
                 .orElseThrow(() -> new IllegalArgumentException(ERROR_ENROLLMENT_NOT_FOUND));
 
-        UserEntity user = userRepo.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException(ERROR_STUDENT_NOT_FOUND));
-
         // Solo el estudiante, profesor del curso o admin pueden actualizar
         boolean isOwner = enrollment.getStudent().getId().equals(userId);
         boolean isTeacher = enrollment.getCourse().getTeacher().getId().equals(userId);
-        boolean isAdmin = user.getRole() == Role.ADMIN;
+        boolean isAdmin = role == Role.ADMIN;
 
         if (!isOwner && !isTeacher && !isAdmin) {
             logService.logError(MODULE_ENROLLMENT, ACTION_UPDATE_ENROLLMENT, ERROR_NOT_AUTHORIZED, userId);
@@ -215,18 +212,15 @@ public class EnrollmentService {
     }
 
     // Cancelar matrícula
-    public void cancelEnrollment(UUID enrollmentId, UUID userId) {
+    public void cancelEnrollment(UUID enrollmentId, UUID userId, Role role) {
         logService.logInfo(MODULE_ENROLLMENT, ACTION_CANCEL_ENROLLMENT,
                 "Cancelando matrícula: " + enrollmentId, userId);
 
         Enrollment enrollment = enrollmentRepo.findById(enrollmentId)
                 .orElseThrow(() -> new IllegalArgumentException(ERROR_ENROLLMENT_NOT_FOUND));
 
-        UserEntity user = userRepo.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException(ERROR_STUDENT_NOT_FOUND));
-
         boolean isOwner = enrollment.getStudent().getId().equals(userId);
-        boolean isAdmin = user.getRole() == Role.ADMIN;
+        boolean isAdmin = role == Role.ADMIN;
 
         if (!isOwner && !isAdmin) {
             logService.logError(MODULE_ENROLLMENT, ACTION_CANCEL_ENROLLMENT, ERROR_NOT_AUTHORIZED, userId);
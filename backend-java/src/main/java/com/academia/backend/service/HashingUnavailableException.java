@@ -0,0 +1,21 @@
+package com.academia.backend.service;
+
+/**
+ * El pool de hashing de contraseñas está saturado. Se responde 503 con Retry-After
+ * en lugar de bloquear hilos de Tomcat esperando turno.
+ */
+public class HashingUnavailableException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    public HashingUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,174 @@
+package com.academia.backend.service;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.interfaces.RSAPrivateCrtKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.crypto.SecretKey;
+
+/**
+ * Llaves de los access tokens, leídas una sola vez al arrancar.
+ * - HS256: firma y verifica con jwt.secret (tokens sin kid, como hasta ahora).
+ * - RS256: firma con jwt.privateKey y pone el kid (huella RFC 7638) en la cabecera. Verifica con
+ *   la pública actual más jwt.verificationKeys, las públicas anteriores que siguen vigentes
+ *   durante una rotación. Todas se publican en /.well-known/jwks.json.
+ * Con jwt.acceptLegacyHmac (desactivado por defecto) los tokens HS256 emitidos antes de pasar a
+ * RS256 se aceptan solo durante un accessTtlMinutes desde el arranque: para entonces ya han
+ * expirado todos y HMAC deja de aceptarse sin tener que volver a desplegar.
+ */
+@Service
+public class JwtKeyRing {
+
+  public record SigningKey(String kid, SignatureAlgorithm algorithm, Key key) {}
+
+  @Value("${jwt.alg:HS256}") private String alg;
+  @Value("${jwt.secret:dev-secret-change-me}") private String secret;
+  @Value("${jwt.privateKey:}") private String privateKeyPem;
+  @Value("${jwt.publicKey:}") private String publicKeyPem;
+  @Value("${jwt.verificationKeys:}") private String verificationKeysPem;
+  @Value("${jwt.acceptLegacyHmac:false}") private boolean acceptLegacyHmac;
+  @Value("${jwt.accessTtlMinutes:15}") private long accessTtlMinutes;
+
+  private SigningKey signingKey;
+  private SecretKey hmacKey;
+  // Con RS256: hasta cuándo se aceptan tokens HS256 (null = nunca)
+  private Instant legacyHmacUntil;
+  // kid -> pública (la actual primero)
+  private final Map<String, RSAPublicKey> publicKeys = new LinkedHashMap<>();
+
+  @PostConstruct
+  void init() throws GeneralSecurityException {
+    hmacKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    SignatureAlgorithm algorithm = SignatureAlgorithm.forName(alg.trim().toUpperCase());
+    if (algorithm == SignatureAlgorithm.HS256) {
+      signingKey = new SigningKey(null, algorithm, hmacKey);
+    } else if (algorithm == SignatureAlgorithm.RS256) {
+      if (privateKeyPem.isBlank()) {
+        throw new IllegalStateException("jwt.alg=RS256 requiere jwt.privateKey (PKCS#8 en PEM o base64)");
+      }
+      KeyFactory rsa = KeyFactory.getInstance("RSA");
+      PrivateKey privateKey = rsa.generatePrivate(new PKCS8EncodedKeySpec(decodePem(privateKeyPem)));
+      RSAPublicKey publicKey = publicKeyPem.isBlank()
+          ? derivePublic(rsa, privateKey)
+          : (RSAPublicKey) rsa.generatePublic(new X509EncodedKeySpec(decodePem(publicKeyPem)));
+      String kid = thumbprint(publicKey);
+      publicKeys.put(kid, publicKey);
+      signingKey = new SigningKey(kid, algorithm, privateKey);
+      if (acceptLegacyHmac) {
+        legacyHmacUntil = Instant.now().plus(accessTtlMinutes, ChronoUnit.MINUTES);
+      }
+    } else {
+      // jjwt 0.11 no implementa EdDSA; ES*/PS* no se han necesitado
+      throw new IllegalStateException("jwt.alg no soportado: " + alg + " (usa HS256 o RS256)");
+    }
+    // Las de verificación se aceptan también en modo HS256, para volver atrás sin invalidar tokens
+    for (String pem : splitKeys(verificationKeysPem)) {
+      RSAPublicKey key = (RSAPublicKey) KeyFactory.getInstance("RSA")
+          .generatePublic(new X509EncodedKeySpec(decodePem(pem)));
+      publicKeys.putIfAbsent(thumbprint(key), key);
+    }
+  }
+
+  public SigningKey signingKey() {
+    return signingKey;
+  }
+
+  // Llave con la que verificar un token según su cabecera; nunca mezcla HMAC con RSA
+  public Key verificationKey(JwsHeader<?> header) {
+    String algorithm = header.getAlgorithm();
+    if (algorithm != null && algorithm.startsWith("HS")) {
+      if (signingKey.algorithm() != SignatureAlgorithm.HS256
+          && (legacyHmacUntil == null || Instant.now().isAfter(legacyHmacUntil))) {
+        throw new UnsupportedJwtException("Tokens HMAC deshabilitados");
+      }
+      return hmacKey;
+    }
+    String kid = header.getKeyId();
+    RSAPublicKey key = kid != null ? publicKeys.get(kid) : null;
+    if (key == null) {
+      throw new SignatureException("kid desconocido: " + kid);
+    }
+    return key;
+  }
+
+  // JWK Set público (RFC 7517); vacío en modo HS256 sin llaves de verificación
+  public List<Map<String, String>> jwks() {
+    List<Map<String, String>> keys = new ArrayList<>(publicKeys.size());
+    publicKeys.forEach((kid, key) -> {
+      Map<String, String> jwk = new LinkedHashMap<>();
+      jwk.put("kty", "RSA");
+      jwk.put("kid", kid);
+      jwk.put("use", "sig");
+      jwk.put("alg", SignatureAlgorithm.RS256.getValue());
+      jwk.put("n", base64Url(key.getModulus()));
+      jwk.put("e", base64Url(key.getPublicExponent()));
+      keys.add(jwk);
+    });
+    return keys;
+  }
+
+  private static RSAPublicKey derivePublic(KeyFactory rsa, PrivateKey privateKey) throws GeneralSecurityException {
+    if (!(privateKey instanceof RSAPrivateCrtKey crt)) {
+      throw new IllegalStateException("No se puede derivar la llave pública; define jwt.publicKey");
+    }
+    return (RSAPublicKey) rsa.generatePublic(new RSAPublicKeySpec(crt.getModulus(), crt.getPublicExponent()));
+  }
+
+  // Huella JWK (RFC 7638): estable para la misma llave, sin configurar kids a mano
+  private static String thumbprint(RSAPublicKey key) throws GeneralSecurityException {
+    String canonical = "{\"e\":\"" + base64Url(key.getPublicExponent()) + "\",\"kty\":\"RSA\",\"n\":\""
+        + base64Url(key.getModulus()) + "\"}";
+    byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+  }
+
+  // Entero sin signo big-endian, sin el byte de signo que añade BigInteger
+  private static String base64Url(BigInteger value) {
+    byte[] bytes = value.toByteArray();
+    if (bytes.length > 1 && bytes[0] == 0) {
+      bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+    }
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+  }
+
+  // Acepta PEM completo o solo el base64; "\n" literales por venir de variables de entorno
+  private static byte[] decodePem(String pem) {
+    String body = pem.replace("\\n", "\n")
+        .replaceAll("-----(BEGIN|END) [A-Z ]+-----", "")
+        .replaceAll("\\s", "");
+    return Base64.getDecoder().decode(body);
+  }
+
+  // Varias llaves separadas por coma
+  private static List<String> splitKeys(String value) {
+    return Arrays.stream(value.split(","))
+        .map(String::trim)
+        .filter(s -> !s.isEmpty())
+        .toList();
+  }
+}
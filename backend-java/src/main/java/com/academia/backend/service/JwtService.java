@@ -1,7 +1,6 @@
 package com.academia.backend.service;
 
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -9,51 +8,96 @@ import java.security.Key;
 import java.time.Instant;
 import java.util.Date;
 import java.util.Map;
-import java.util.UUID;
+import java.util.Optional;
+import javax.crypto.SecretKey;
 
 @Service
 public class JwtService {
-  @Value("${jwt.alg:HS256}") private String alg;
-  @Value("${jwt.secret:dev-secret-change-me}") private String secret;
+
+  // Lo que JwtFilter necesita del access token; instantes en segundos epoch
+  public record AccessClaims(String subject, String sessionId, String role, long issuedAt, long expiresAt) {}
+
   @Value("${jwt.accessTtlMinutes:15}") private long accessTtlMinutes;
+  @Value("${jwt.renewThresholdMinutes:5}") private long renewThresholdMinutes;
+
+  private final JwtKeyRing keys;
+  // El parser es inmutable y thread-safe; la llave se elige por token (alg/kid) en JwtKeyRing
+  private final JwtParser parser;
+  // Solo con HS256; null si la firma es RS256 o jwt.compactCodec=false
+  private final CompactJwtCodec codec;
 
-  private Key signingKey() {
-    // HS256 por defecto; (si deseas RS256, añade lectura de llaves PEM)
-    return Keys.hmacShaKeyFor(secret.getBytes());
+  public JwtService(JwtKeyRing keys, @Value("${jwt.compactCodec:true}") boolean compactCodec) {
+    this.keys = keys;
+    JwtKeyRing.SigningKey signing = keys.signingKey();
+    this.codec = compactCodec && signing.algorithm() == SignatureAlgorithm.HS256
+        ? new CompactJwtCodec((SecretKey) signing.key())
+        : null;
+    this.parser = Jwts.parserBuilder()
+        .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+          // jjwt 0.11 declara este método con JwsHeader sin parametrizar; JwsHeader<?> no lo sobrescribiría
+          @Override
+          @SuppressWarnings("rawtypes")
+          public Key resolveSigningKey(JwsHeader header, Claims claims) {
+            return keys.verificationKey(header);
+          }
+        })
+        .build();
   }
 
-  public String mintAccess(String sub, String sid) {
+  // role (nombre de Role) viaja en el token para autorizar sin cargar el usuario en cada request
+  public String mintAccess(String sub, String sid, String role) {
     Instant now = Instant.now();
-    return Jwts.builder()
-        .setClaims(Map.of("sub", sub, "sid", sid))
+    if (codec != null) {
+      String token = codec.encode(sub, sid, role, now.getEpochSecond(), now.getEpochSecond() + accessTtlMinutes * 60);
+      if (token != null) {
+        return token;
+      }
+    }
+    JwtKeyRing.SigningKey key = keys.signingKey();
+    JwtBuilder builder = Jwts.builder()
+        .setClaims(role != null ? Map.of("sub", sub, "sid", sid, "role", role) : Map.of("sub", sub, "sid", sid))
         .setIssuedAt(Date.from(now))
-        .setExpiration(Date.from(now.plusSeconds(accessTtlMinutes*60)))
-        .signWith(signingKey(), SignatureAlgorithm.HS256)
-        .compact();
+        .setExpiration(Date.from(now.plusSeconds(accessTtlMinutes*60)));
+    if (key.kid() != null) {
+      builder.setHeaderParam(JwsHeader.KEY_ID, key.kid());
+    }
+    return builder.signWith(key.key(), key.algorithm()).compact();
   }
 
   public Jws<Claims> verify(String token) {
-    return Jwts.parserBuilder().setSigningKey(signingKey()).build().parseClaimsJws(token);
+    return parser.parseClaimsJws(token);
+  }
+
+  // Verificación por request: el codec compacto si el token tiene nuestra forma, si no jjwt
+  public AccessClaims verifyAccess(String token) {
+    if (codec != null) {
+      AccessClaims claims = codec.decode(token);
+      if (claims != null) {
+        return claims;
+      }
+    }
+    Claims c = verify(token).getBody();
+    return new AccessClaims(c.getSubject(), c.get("sid", String.class), c.get("role", String.class),
+        epochSeconds(c.getIssuedAt(), 0), epochSeconds(c.getExpiration(), Instant.MAX.getEpochSecond()));
   }
 
   public String refreshAccess(String token) {
     Jws<Claims> claims = verify(token);
     String sub = claims.getBody().get("sub", String.class);
     String sid = claims.getBody().get("sid", String.class);
-    return mintAccess(sub, sid);
+    return mintAccess(sub, sid, claims.getBody().get("role", String.class));
   }
   
-  public UUID extractUserIdFromHeader(String authHeader) {
-    String token = authHeader.replace("Bearer ", "");
-    Jws<Claims> claims = verify(token);
-    String sub = claims.getBody().get("sub", String.class);
-    return UUID.fromString(sub);
+  // Renovación deslizante: solo emite un token nuevo cuando al actual le queda menos que el umbral.
+  // Usa las claims ya verificadas, sin volver a parsear el token.
+  public Optional<String> renewIfExpiring(AccessClaims claims) {
+    if (claims.expiresAt() > Instant.now().getEpochSecond() + renewThresholdMinutes * 60) {
+      return Optional.empty();
+    }
+    return Optional.of(mintAccess(claims.subject(), claims.sessionId(), claims.role()));
   }
-  
-  public UUID extractUserId(String token) {
-    Jws<Claims> claims = verify(token);
-    String sub = claims.getBody().get("sub", String.class);
-    return UUID.fromString(sub);
+
+  private static long epochSeconds(Date date, long missing) {
+    return date != null ? date.getTime() / 1000 : missing;
   }
 }
-
@@ -0,0 +1,106 @@
+package com.academia.backend.service;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma de latencias (ms) estilo HDR con buckets log-lineales: 16 sub-buckets por
+ * potencia de dos (~6% de error relativo). El registro es lock-free (solo incrementos atómicos).
+ */
+public class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 4;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  // Valores por encima de ~4.6 horas se acumulan en el último bucket
+  private static final int MAX_EXPONENT = 23;
+  public static final int BUCKET_COUNT = SUB_BUCKETS + (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+  private static final long MAX_TRACKABLE = (1L << (MAX_EXPONENT + 1)) - 1;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+  private final AtomicLong totalCount = new AtomicLong();
+  private final AtomicLong totalMs = new AtomicLong();
+  private final AtomicLong maxMs = new AtomicLong();
+
+  public void record(long valueMs) {
+    long v = Math.max(0, Math.min(valueMs, MAX_TRACKABLE));
+    counts.incrementAndGet(bucketIndex(v));
+    totalCount.incrementAndGet();
+    totalMs.addAndGet(v);
+    maxMs.accumulateAndGet(v, Math::max);
+  }
+
+  public long getTotalCount() {
+    return totalCount.get();
+  }
+
+  public long getTotalMs() {
+    return totalMs.get();
+  }
+
+  public long getMaxMs() {
+    return maxMs.get();
+  }
+
+  // Copia densa de los contadores, recortada tras el último bucket no vacío
+  public long[] snapshotCounts() {
+    long[] copy = new long[BUCKET_COUNT];
+    int last = -1;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      copy[i] = counts.get(i);
+      if (copy[i] != 0) {
+        last = i;
+      }
+    }
+    return Arrays.copyOf(copy, last + 1);
+  }
+
+  static int bucketIndex(long v) {
+    if (v < SUB_BUCKETS) {
+      return (int) v;
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(v);
+    int shift = exponent - SUB_BUCKET_BITS;
+    int sub = (int) ((v >> shift) & (SUB_BUCKETS - 1));
+    return SUB_BUCKETS + shift * SUB_BUCKETS + sub;
+  }
+
+  // Mayor valor equivalente del bucket (igual que HdrHistogram al reportar percentiles)
+  static long bucketUpperBound(int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+    int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+    int sub = (index - SUB_BUCKETS) % SUB_BUCKETS;
+    long lower = (long) (SUB_BUCKETS + sub) << shift;
+    return lower + (1L << shift) - 1;
+  }
+
+  // Suma 'source' sobre 'target' ampliándolo si hace falta
+  public static long[] merge(long[] target, long[] source) {
+    long[] result = target.length >= source.length ? target : Arrays.copyOf(target, source.length);
+    for (int i = 0; i < source.length; i++) {
+      result[i] += source[i];
+    }
+    return result;
+  }
+
+  public static long percentile(long[] counts, double percentile) {
+    long total = 0;
+    for (long c : counts) {
+      total += c;
+    }
+    if (total == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+    long seen = 0;
+    for (int i = 0; i < counts.length; i++) {
+      seen += counts[i];
+      if (seen >= rank) {
+        return bucketUpperBound(i);
+      }
+    }
+    return bucketUpperBound(counts.length - 1);
+  }
+}
@@ -0,0 +1,141 @@
+package com.academia.backend.service;
+
+import com.academia.backend.domain.LogDictionaryEntry;
+import com.academia.backend.domain.LogDictionaryKind;
+import com.academia.backend.repo.LogDictionaryRepo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Diccionario de cadenas repetidas en system_logs (módulo, acción, user agent, ruta).
+ * Las filas guardan solo el id; ambos sentidos se cachean en memoria.
+ * User agent y ruta los elige el cliente: LogService ya los reduce (patrón de ruta, versiones
+ * sin detalle), y aun así cada tipo admite como mucho maxEntriesPerKind valores; a partir de
+ * ahí los nuevos se guardan como OVERFLOW_VALUE. El límite se cuenta por instancia.
+ */
+@Service
+public class LogDictionary {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogDictionary.class);
+
+    public static final int MAX_VALUE_LENGTH = 1000;
+    public static final String OVERFLOW_VALUE = "(otros)";
+
+    // Con DO UPDATE la sentencia devuelve el id también cuando el valor ya existía
+    private static final String UPSERT_SQL = "INSERT INTO log_dictionary (kind, value) VALUES (?, ?) "
+            + "ON CONFLICT (kind, value) DO UPDATE SET kind = EXCLUDED.kind RETURNING id";
+
+    private final LogDictionaryRepo logDictionaryRepo;
+    private final JdbcTemplate jdbc;
+
+    private final Map<LogDictionaryKind, ConcurrentHashMap<String, Integer>> idsByValue =
+            new EnumMap<>(LogDictionaryKind.class);
+    private final ConcurrentHashMap<Integer, String> valuesById = new ConcurrentHashMap<>();
+    private final AtomicLong overflowed = new AtomicLong();
+
+    @Value("${app.logs.dictionary.maxEntriesPerKind:5000}")
+    int maxEntriesPerKind;
+
+    public LogDictionary(LogDictionaryRepo logDictionaryRepo, JdbcTemplate jdbc) {
+        this.logDictionaryRepo = logDictionaryRepo;
+        this.jdbc = jdbc;
+        for (LogDictionaryKind kind : LogDictionaryKind.values()) {
+            idsByValue.put(kind, new ConcurrentHashMap<>());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        try {
+            logDictionaryRepo.findAll().forEach(this::cache);
+            logger.info("Diccionario de logs cargado: {} valores", valuesById.size());
+        } catch (Exception e) {
+            logger.warn("No se pudo precargar el diccionario de logs: {}", e.getMessage());
+        }
+    }
+
+    // Id del valor, insertándolo si no existe (solo desde el escritor de logs)
+    public Integer resolve(LogDictionaryKind kind, String value) {
+        if (value == null) {
+            return null;
+        }
+        String normalized = normalize(value);
+        Map<String, Integer> ids = idsByValue.get(kind);
+        Integer id = ids.get(normalized);
+        if (id != null) {
+            return id;
+        }
+        if (ids.size() >= maxEntriesPerKind && !OVERFLOW_VALUE.equals(normalized)) {
+            if (overflowed.getAndIncrement() == 0) {
+                logger.warn("log_dictionary llegó a {} valores de {}; los nuevos se guardan como {}",
+                        maxEntriesPerKind, kind, OVERFLOW_VALUE);
+            }
+            return resolve(kind, OVERFLOW_VALUE);
+        }
+        id = jdbc.queryForObject(UPSERT_SQL, Integer.class, kind.name(), normalized);
+        cache(kind, normalized, id);
+        return id;
+    }
+
+    // Id del valor sin insertarlo (para consultas)
+    public Optional<Integer> find(LogDictionaryKind kind, String value) {
+        if (value == null) {
+            return Optional.empty();
+        }
+        String normalized = normalize(value);
+        Integer id = idsByValue.get(kind).get(normalized);
+        if (id != null) {
+            return Optional.of(id);
+        }
+        Optional<LogDictionaryEntry> entry = logDictionaryRepo.findByKindAndValue(kind, normalized);
+        entry.ifPresent(this::cache);
+        return entry.map(LogDictionaryEntry::getId);
+    }
+
+    public List<Integer> findIdsContaining(LogDictionaryKind kind, String text) {
+        return logDictionaryRepo.findIdsByKindAndValueContaining(kind, text);
+    }
+
+    public String valueOf(Integer id) {
+        if (id == null) {
+            return null;
+        }
+        String value = valuesById.get(id);
+        if (value == null) {
+            value = logDictionaryRepo.findById(id).map(e -> {
+                cache(e);
+                return e.getValue();
+            }).orElse(null);
+        }
+        return value;
+    }
+
+    public int size() {
+        return valuesById.size();
+    }
+
+    private void cache(LogDictionaryEntry entry) {
+        cache(entry.getKind(), entry.getValue(), entry.getId());
+    }
+
+    private void cache(LogDictionaryKind kind, String value, Integer id) {
+        idsByValue.get(kind).put(value, id);
+        valuesById.put(id, value);
+    }
+
+    private static String normalize(String value) {
+        return value.length() > MAX_VALUE_LENGTH ? value.substring(0, MAX_VALUE_LENGTH) : value;
+    }
+}
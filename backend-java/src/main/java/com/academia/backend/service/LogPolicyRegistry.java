@@ -0,0 +1,147 @@
+package com.academia.backend.service;
+
+import com.academia.backend.domain.LogPolicy;
+import com.academia.backend.domain.LogPolicyAction;
+import com.academia.backend.dto.LogPolicyDto;
+import com.academia.backend.repo.LogPolicyRepo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Política de persistencia de logs por módulo y nivel. Las reglas viven en log_policies y en
+ * memoria como un mapa inmutable que se sustituye entero al cambiar (copy-on-write), así que
+ * la consulta en cada log no toma locks. Orden de búsqueda: módulo+nivel, módulo+*, *+nivel, *+*.
+ */
+@Service
+public class LogPolicyRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogPolicyRegistry.class);
+
+    public static final String ANY = "*";
+
+    private static final Set<String> LEVELS = Set.of("DEBUG", "INFO", "WARN", "ERROR", ANY);
+
+    public record Rule(LogPolicyAction action, double sampleRate) {
+        public boolean shouldPersist() {
+            return action == LogPolicyAction.PERSIST
+                    || (action == LogPolicyAction.SAMPLE && ThreadLocalRandom.current().nextDouble() < sampleRate);
+        }
+    }
+
+    // Comportamiento previo: DEBUG solo a consola, el resto a BD
+    private static final Map<String, Map<String, Rule>> BUILT_IN = Map.of(ANY, Map.of(
+            "DEBUG", new Rule(LogPolicyAction.CONSOLE, 0),
+            ANY, new Rule(LogPolicyAction.PERSIST, 1.0)));
+
+    private final LogPolicyRepo logPolicyRepo;
+
+    // módulo -> nivel -> regla
+    private final AtomicReference<Map<String, Map<String, Rule>>> rules = new AtomicReference<>(BUILT_IN);
+
+    public LogPolicyRegistry(LogPolicyRepo logPolicyRepo) {
+        this.logPolicyRepo = logPolicyRepo;
+    }
+
+    public Rule resolve(String module, String level) {
+        Map<String, Map<String, Rule>> snapshot = rules.get();
+        Rule rule = lookup(snapshot.get(module), level);
+        if (rule == null) {
+            rule = lookup(snapshot.get(ANY), level);
+        }
+        return rule;
+    }
+
+    private static Rule lookup(Map<String, Rule> byLevel, String level) {
+        if (byLevel == null) {
+            return null;
+        }
+        Rule rule = byLevel.get(level);
+        return rule != null ? rule : byLevel.get(ANY);
+    }
+
+    // Recarga periódica para que los cambios hechos en otra instancia lleguen a esta
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.logs.policies.refreshMs:60000}", initialDelayString = "${app.logs.policies.refreshMs:60000}")
+    public void reload() {
+        try {
+            rules.set(build(logPolicyRepo.findAll()));
+        } catch (Exception e) {
+            logger.warn("No se pudieron cargar las políticas de logs: {}", e.getMessage());
+        }
+    }
+
+    public List<LogPolicyDto> getPolicies() {
+        List<LogPolicyDto> out = new ArrayList<>();
+        rules.get().forEach((module, byLevel) -> byLevel.forEach((level, rule) ->
+                out.add(new LogPolicyDto(module, level, rule.action(), rule.sampleRate()))));
+        return out;
+    }
+
+    @Transactional
+    public LogPolicyDto upsert(LogPolicyDto dto) {
+        if (dto.module() == null || dto.module().isBlank()) {
+            throw new IllegalArgumentException("module es obligatorio (\"*\" para todos)");
+        }
+        if (dto.action() == null) {
+            throw new IllegalArgumentException("action es obligatorio");
+        }
+        String level = normalizeLevel(dto.logLevel());
+        double sampleRate = dto.sampleRate() != null ? dto.sampleRate() : 1.0;
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("sampleRate debe estar entre 0 y 1");
+        }
+
+        LogPolicy policy = logPolicyRepo.findByModuleAndLogLevel(dto.module(), level).orElseGet(LogPolicy::new);
+        policy.setModule(dto.module());
+        policy.setLogLevel(level);
+        policy.setAction(dto.action());
+        policy.setSampleRate(sampleRate);
+        logPolicyRepo.save(policy);
+        logger.info("Política de logs actualizada: {}/{} -> {} ({})", dto.module(), level, dto.action(), sampleRate);
+
+        reload();
+        return new LogPolicyDto(dto.module(), level, dto.action(), sampleRate);
+    }
+
+    @Transactional
+    public boolean delete(String module, String level) {
+        var policy = logPolicyRepo.findByModuleAndLogLevel(module, normalizeLevel(level));
+        policy.ifPresent(logPolicyRepo::delete);
+        reload();
+        return policy.isPresent();
+    }
+
+    private static String normalizeLevel(String level) {
+        String normalized = level == null || level.isBlank() ? ANY : level.trim().toUpperCase(Locale.ROOT);
+        if (!LEVELS.contains(normalized)) {
+            throw new IllegalArgumentException("Nivel inválido: " + level);
+        }
+        return normalized;
+    }
+
+    private static Map<String, Map<String, Rule>> build(List<LogPolicy> policies) {
+        Map<String, Map<String, Rule>> next = new HashMap<>();
+        BUILT_IN.forEach((module, byLevel) -> next.put(module, new HashMap<>(byLevel)));
+        for (LogPolicy p : policies) {
+            next.computeIfAbsent(p.getModule(), m -> new HashMap<>())
+                    .put(p.getLogLevel(), new Rule(p.getAction(), p.getSampleRate()));
+        }
+        Map<String, Map<String, Rule>> frozen = new HashMap<>();
+        next.forEach((module, byLevel) -> frozen.put(module, Map.copyOf(byLevel)));
+        return Map.copyOf(frozen);
+    }
+}
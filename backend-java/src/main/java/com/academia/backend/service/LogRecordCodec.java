@@ -0,0 +1,147 @@
+package com.academia.backend.service;
+
+import com.academia.backend.dto.LogEntry;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Formato binario de un log en los segmentos de SegmentFileLogStore:
+ * [int longitud][long created_at ms][nivel][módulo][resto de campos].
+ * Nivel y módulo van justo después de la fecha para poder filtrar sin decodificar el registro.
+ * Cadenas: int longitud (-1 = null) + UTF-8. UUID: byte presente + dos long.
+ */
+final class LogRecordCodec {
+
+    static final int LENGTH_PREFIX = Integer.BYTES;
+
+    private LogRecordCodec() {
+    }
+
+    // Registro completo, con el prefijo de longitud incluido
+    static byte[] encode(LogEntry e) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(0); // se rellena al final
+            out.writeLong(e.createdAt().toEpochMilli());
+            writeString(out, e.logLevel());
+            writeString(out, e.module());
+            writeUuid(out, e.id());
+            writeString(out, e.action());
+            writeString(out, e.message());
+            writeUuid(out, e.userId());
+            writeString(out, e.ipAddress());
+            writeString(out, e.userAgent());
+            writeString(out, e.requestPath());
+            writeString(out, e.requestMethod());
+            out.writeInt(e.statusCode() != null ? e.statusCode() : Integer.MIN_VALUE);
+            out.writeLong(e.durationMs() != null ? e.durationMs() : Long.MIN_VALUE);
+            writeString(out, e.stackTrace());
+            out.writeBoolean(e.stackFingerprint() != null);
+            out.writeLong(e.stackFingerprint() != null ? e.stackFingerprint() : 0);
+            writeString(out, e.correlationId());
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex); // no ocurre en memoria
+        }
+        byte[] record = bytes.toByteArray();
+        ByteBuffer.wrap(record).putInt(0, record.length - LENGTH_PREFIX);
+        return record;
+    }
+
+    static long timestampAt(ByteBuffer buf, int recordOffset) {
+        return buf.getLong(recordOffset + LENGTH_PREFIX);
+    }
+
+    // Compara nivel y módulo del registro con los filtros (null = cualquiera) sin crear Strings
+    static boolean headerMatches(ByteBuffer buf, int recordOffset, byte[] level, byte[] module) {
+        int pos = recordOffset + LENGTH_PREFIX + Long.BYTES;
+        int levelLength = buf.getInt(pos);
+        if (level != null && !bytesEqual(buf, pos + Integer.BYTES, levelLength, level)) {
+            return false;
+        }
+        if (module == null) {
+            return true;
+        }
+        pos += Integer.BYTES + Math.max(levelLength, 0);
+        return bytesEqual(buf, pos + Integer.BYTES, buf.getInt(pos), module);
+    }
+
+    static LogEntry decode(ByteBuffer source, int recordOffset) {
+        ByteBuffer buf = source.duplicate();
+        buf.position(recordOffset + LENGTH_PREFIX);
+        long createdAt = buf.getLong();
+        String level = readString(buf);
+        String module = readString(buf);
+        UUID id = readUuid(buf);
+        String action = readString(buf);
+        String message = readString(buf);
+        UUID userId = readUuid(buf);
+        String ip = readString(buf);
+        String userAgent = readString(buf);
+        String path = readString(buf);
+        String method = readString(buf);
+        int status = buf.getInt();
+        long duration = buf.getLong();
+        String stackTrace = readString(buf);
+        boolean hasFingerprint = buf.get() != 0;
+        long fingerprint = buf.getLong();
+        String correlationId = readString(buf);
+        return new LogEntry(id, level, module, action, message, userId, ip, userAgent, path, method,
+                status != Integer.MIN_VALUE ? status : null,
+                duration != Long.MIN_VALUE ? duration : null,
+                stackTrace,
+                hasFingerprint ? fingerprint : null,
+                correlationId,
+                Instant.ofEpochMilli(createdAt));
+    }
+
+    private static boolean bytesEqual(ByteBuffer buf, int pos, int length, byte[] expected) {
+        if (length != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buf.get(pos + i) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buf) {
+        int length = buf.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeUuid(DataOutputStream out, UUID value) throws IOException {
+        out.writeBoolean(value != null);
+        out.writeLong(value != null ? value.getMostSignificantBits() : 0);
+        out.writeLong(value != null ? value.getLeastSignificantBits() : 0);
+    }
+
+    private static UUID readUuid(ByteBuffer buf) {
+        boolean present = buf.get() != 0;
+        long msb = buf.getLong();
+        long lsb = buf.getLong();
+        return present ? new UUID(msb, lsb) : null;
+    }
+}
@@ -0,0 +1,85 @@
+package com.academia.backend.service;
+
+import com.academia.backend.dto.LogEntry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Predicate;
+
+/**
+ * Buffer circular de tamaño fijo con los últimos logs, sin locks.
+ * Los escritores reservan una secuencia con getAndIncrement y publican la entrada en su slot;
+ * cada lector lleva su propio cursor y, si se queda atrás más que la capacidad, salta al
+ * dato más antiguo disponible en lugar de acumular.
+ */
+@Component
+public class LogRingBuffer {
+
+    // La secuencia va junto a la entrada para detectar slots sobrescritos o aún no publicados
+    private record Slot(long sequence, LogEntry entry) {}
+
+    // Resultado de una lectura: siguiente cursor y entradas perdidas por quedarse atrás
+    public record ReadResult(long nextCursor, long skipped) {}
+
+    private final AtomicReferenceArray<Slot> slots;
+    private final int mask;
+    private final AtomicLong nextSequence = new AtomicLong();
+
+    public LogRingBuffer(@Value("${app.logs.stream.bufferSize:8192}") int bufferSize) {
+        // Potencia de dos para indexar con una máscara
+        int capacity = Integer.highestOneBit(Math.max(2, bufferSize - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    public void append(LogEntry entry) {
+        long sequence = nextSequence.getAndIncrement();
+        slots.set((int) (sequence & mask), new Slot(sequence, entry));
+    }
+
+    // Cursor para un lector nuevo: solo verá lo que llegue a partir de ahora
+    public long head() {
+        return nextSequence.get();
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Copia en {@code out} hasta {@code max} entradas desde {@code cursor} que cumplan el filtro.
+     * Se detiene en el primer slot aún no publicado para no saltarse entradas en vuelo.
+     */
+    public ReadResult read(long cursor, int max, Predicate<LogEntry> filter, List<LogEntry> out) {
+        long skipped = 0;
+        long oldest = nextSequence.get() - capacity();
+        if (cursor < oldest) {
+            skipped = oldest - cursor;
+            cursor = oldest;
+        }
+        int copied = 0;
+        while (copied < max) {
+            Slot slot = slots.get((int) (cursor & mask));
+            if (slot == null || slot.sequence() < cursor) {
+                break; // todavía no publicado
+            }
+            if (slot.sequence() > cursor) {
+                // Sobrescrito mientras leíamos: saltar a lo más antiguo que queda
+                long newOldest = nextSequence.get() - capacity();
+                long target = Math.max(newOldest, cursor + 1);
+                skipped += target - cursor;
+                cursor = target;
+                continue;
+            }
+            if (filter.test(slot.entry())) {
+                out.add(slot.entry());
+                copied++;
+            }
+            cursor++;
+        }
+        return new ReadResult(cursor, skipped);
+    }
+}
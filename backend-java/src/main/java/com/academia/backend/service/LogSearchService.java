@@ -0,0 +1,155 @@
+package com.academia.backend.service;
+
+import com.academia.backend.domain.LogDictionaryKind;
+import com.academia.backend.dto.LogSearchCriteria;
+import com.academia.backend.dto.LogSummaryDto;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Búsqueda de logs con cualquier combinación de filtros. El SQL se arma solo con los filtros
+ * presentes para que el planificador elija el índice compuesto adecuado (nivel, módulo,
+ * usuario, estado o ruta + created_at) o el GIN de texto sobre message. Los compuestos los declara
+ * SystemLog; el GIN (índice de expresión, que ddl-auto no crea) se crea al arrancar.
+ * Devuelve un Slice (sin COUNT) con la proyección ligera LogSummaryDto.
+ */
+@Service
+public class LogSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogSearchService.class);
+
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int MESSAGE_PREVIEW_LENGTH = 300;
+
+    private static final String SELECT = "SELECT l.id, l.log_level, l.module_id, l.action_id, "
+            + "LEFT(l.message, " + MESSAGE_PREVIEW_LENGTH + ") AS message, l.user_id, l.request_method, "
+            + "l.request_path_id, l.status_code, l.duration_ms, l.stack_fingerprint, l.correlation_id, l.created_at "
+            + "FROM system_logs l WHERE l.created_at >= :from AND l.created_at < :to";
+
+    // Misma expresión que el índice GIN; si no coincide exactamente el índice no se usa
+    private static final String MESSAGE_TSVECTOR = "to_tsvector('simple', coalesce(l.message, ''))";
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final LogDictionary logDictionary;
+    private final TransactionTemplate tx;
+
+    @Value("${app.logs.defaultQueryWindowDays:7}")
+    long defaultQueryWindowDays;
+
+    public LogSearchService(NamedParameterJdbcTemplate jdbc, LogDictionary logDictionary, TransactionTemplate tx) {
+        this.jdbc = jdbc;
+        this.logDictionary = logDictionary;
+        this.tx = tx;
+    }
+
+    // Se ejecuta después de que ddl-auto cree system_logs (LogDictionary depende del EntityManagerFactory).
+    // En la tabla particionada el índice se crea en todas las particiones, presentes y futuras
+    @PostConstruct
+    void ensureTextIndex() {
+        try {
+            tx.executeWithoutResult(status -> {
+                JdbcTemplate ddl = jdbc.getJdbcTemplate();
+                ddl.execute("SELECT pg_advisory_xact_lock(hashtext('system_logs_search_indexes'))");
+                ddl.execute("CREATE INDEX IF NOT EXISTS idx_system_logs_message_fts ON system_logs "
+                        + "USING GIN (to_tsvector('simple', coalesce(message, '')))");
+            });
+        } catch (Exception e) {
+            logger.error("No se pudo crear el índice de texto de system_logs: {}", e.getMessage());
+        }
+    }
+
+    public Slice<LogSummaryDto> search(LogSearchCriteria criteria, Pageable pageable) {
+        int size = Math.min(pageable.getPageSize(), MAX_PAGE_SIZE);
+        Instant to = criteria.to() != null ? criteria.to() : Instant.now();
+        Instant from = criteria.from() != null ? criteria.from() : to.minus(defaultQueryWindowDays, ChronoUnit.DAYS);
+
+        StringBuilder sql = new StringBuilder(SELECT);
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("from", Timestamp.from(from))
+                .addValue("to", Timestamp.from(to));
+
+        if (criteria.level() != null) {
+            sql.append(" AND l.log_level = :level");
+            params.addValue("level", criteria.level().toUpperCase(Locale.ROOT));
+        }
+        if (criteria.module() != null) {
+            Optional<Integer> moduleId = logDictionary.find(LogDictionaryKind.MODULE, criteria.module());
+            if (moduleId.isEmpty()) {
+                return new SliceImpl<>(List.of(), pageable, false);
+            }
+            sql.append(" AND l.module_id = :moduleId");
+            params.addValue("moduleId", moduleId.get());
+        }
+        if (criteria.userId() != null) {
+            sql.append(" AND l.user_id = :userId");
+            params.addValue("userId", criteria.userId());
+        }
+        if (criteria.statusCode() != null) {
+            sql.append(" AND l.status_code = :statusCode");
+            params.addValue("statusCode", criteria.statusCode());
+        }
+        if (criteria.pathPrefix() != null) {
+            // El prefijo se resuelve contra el diccionario en la misma consulta; system_logs solo compara ids
+            sql.append(" AND l.request_path_id IN (SELECT d.id FROM log_dictionary d "
+                    + "WHERE d.kind = 'REQUEST_PATH' AND d.value LIKE :pathPrefix)");
+            params.addValue("pathPrefix", likePrefix(criteria.pathPrefix()));
+        }
+        if (criteria.text() != null && !criteria.text().isBlank()) {
+            sql.append(" AND ").append(MESSAGE_TSVECTOR).append(" @@ plainto_tsquery('simple', :text)");
+            params.addValue("text", criteria.text());
+        }
+
+        // Se pide una fila de más para saber si hay página siguiente sin COUNT
+        sql.append(" ORDER BY l.created_at DESC LIMIT :limit OFFSET :offset");
+        params.addValue("limit", size + 1);
+        params.addValue("offset", (long) pageable.getPageNumber() * size);
+
+        List<LogSummaryDto> rows = jdbc.query(sql.toString(), params, this::mapRow);
+        boolean hasNext = rows.size() > size;
+        return new SliceImpl<>(hasNext ? rows.subList(0, size) : rows, pageable, hasNext);
+    }
+
+    // Escapar comodines de LIKE para que el prefijo sea literal
+    private static String likePrefix(String prefix) {
+        return prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
+    private LogSummaryDto mapRow(ResultSet rs, int rowNum) throws SQLException {
+        long fingerprint = rs.getLong("stack_fingerprint");
+        boolean hasFingerprint = !rs.wasNull();
+        return new LogSummaryDto(
+                rs.getObject("id", UUID.class),
+                rs.getString("log_level"),
+                logDictionary.valueOf(rs.getObject("module_id", Integer.class)),
+                logDictionary.valueOf(rs.getObject("action_id", Integer.class)),
+                rs.getString("message"),
+                rs.getObject("user_id", UUID.class),
+                rs.getString("request_method"),
+                logDictionary.valueOf(rs.getObject("request_path_id", Integer.class)),
+                rs.getObject("status_code", Integer.class),
+                rs.getObject("duration_ms", Long.class),
+                hasFingerprint ? Long.toHexString(fingerprint) : null,
+                rs.getString("correlation_id"),
+                rs.getTimestamp("created_at").toInstant().toString());
+    }
+}
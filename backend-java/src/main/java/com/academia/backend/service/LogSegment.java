@@ -0,0 +1,223 @@
+package com.academia.backend.service;
+
+import com.academia.backend.dto.LogEntry;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Un segmento de SegmentFileLogStore: archivo de datos de solo anexado (.seg) y un índice
+ * disperso (.idx) con una entrada cada N registros. Cada entrada (maxTs, offset) indica que
+ * todos los registros anteriores a offset tienen created_at <= maxTs, lo que permite saltar
+ * al principio de un rango aunque los registros no lleguen en orden estricto.
+ * Solo el hilo del escritor anexa; las lecturas usan mmap hasta el último tamaño confirmado.
+ */
+final class LogSegment {
+
+    static final String DATA_SUFFIX = ".seg";
+    static final String INDEX_SUFFIX = ".idx";
+    private static final String PREFIX = "segment-";
+
+    // Registro que cumple el filtro, sobre el mismo mapeo en que se encontró
+    record Match(long timestamp, ByteBuffer buffer, int offset) {
+        LogEntry decode() {
+            return LogRecordCodec.decode(buffer, offset);
+        }
+    }
+
+    final long startMillis;
+    // Momento de creación, para rotar por tiempo
+    final long createdMillis = System.currentTimeMillis();
+    final Path dataPath;
+    final Path indexPath;
+
+    private FileChannel dataChannel;
+    private FileChannel indexChannel;
+    private volatile long committedSize;
+    private volatile boolean sealed;
+    private volatile MappedByteBuffer mapped;
+
+    // Índice en memoria; sincronizado porque el escritor lo amplía mientras se consulta
+    private long[] indexTimes = new long[64];
+    private long[] indexOffsets = new long[64];
+    private int indexSize;
+
+    // Estado del escritor
+    private long maxTimestamp = Long.MIN_VALUE;
+    private int recordsSinceIndex;
+
+    private LogSegment(long startMillis, Path dataPath, Path indexPath) {
+        this.startMillis = startMillis;
+        this.dataPath = dataPath;
+        this.indexPath = indexPath;
+    }
+
+    static LogSegment create(Path dir, long startMillis) throws IOException {
+        LogSegment segment = new LogSegment(startMillis, dir.resolve(PREFIX + startMillis + DATA_SUFFIX),
+                dir.resolve(PREFIX + startMillis + INDEX_SUFFIX));
+        segment.dataChannel = FileChannel.open(segment.dataPath, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.WRITE);
+        segment.indexChannel = FileChannel.open(segment.indexPath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        return segment;
+    }
+
+    // Segmento existente (de una ejecución anterior): queda cerrado para escritura
+    static LogSegment open(Path dataPath) throws IOException {
+        String name = dataPath.getFileName().toString();
+        long start = Long.parseLong(name.substring(PREFIX.length(), name.length() - DATA_SUFFIX.length()));
+        LogSegment segment = new LogSegment(start, dataPath,
+                dataPath.resolveSibling(PREFIX + start + INDEX_SUFFIX));
+        segment.committedSize = Files.size(dataPath);
+        segment.sealed = true;
+        if (Files.exists(segment.indexPath)) {
+            ByteBuffer index = ByteBuffer.wrap(Files.readAllBytes(segment.indexPath));
+            while (index.remaining() >= 2 * Long.BYTES) {
+                segment.addIndexEntry(index.getLong(), index.getLong());
+            }
+        }
+        return segment;
+    }
+
+    static boolean isDataFile(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(PREFIX) && name.endsWith(DATA_SUFFIX);
+    }
+
+    long size() {
+        return committedSize;
+    }
+
+    // Anexa registros ya codificados (con prefijo de longitud) con una escritura por lote
+    void append(List<byte[]> records, List<Long> timestamps, int indexInterval) throws IOException {
+        ByteBuffer[] buffers = new ByteBuffer[records.size()];
+        ByteBuffer newIndexEntries = ByteBuffer.allocate((records.size() / indexInterval + 1) * 2 * Long.BYTES);
+        long offset = committedSize;
+        for (int i = 0; i < records.size(); i++) {
+            if (recordsSinceIndex == indexInterval) {
+                newIndexEntries.putLong(maxTimestamp).putLong(offset);
+                addIndexEntry(maxTimestamp, offset);
+                recordsSinceIndex = 0;
+            }
+            buffers[i] = ByteBuffer.wrap(records.get(i));
+            offset += records.get(i).length;
+            maxTimestamp = Math.max(maxTimestamp, timestamps.get(i));
+            recordsSinceIndex++;
+        }
+        while (hasRemaining(buffers)) {
+            dataChannel.write(buffers);
+        }
+        newIndexEntries.flip();
+        while (newIndexEntries.hasRemaining()) {
+            indexChannel.write(newIndexEntries);
+        }
+        // Solo a partir de aquí los lectores ven los nuevos registros
+        committedSize = offset;
+    }
+
+    void seal() throws IOException {
+        sealed = true;
+        if (dataChannel != null) {
+            dataChannel.force(false);
+            dataChannel.close();
+            indexChannel.force(false);
+            indexChannel.close();
+            dataChannel = null;
+            indexChannel = null;
+        }
+    }
+
+    boolean isSealed() {
+        return sealed;
+    }
+
+    // Recibe cada registro que cumple el filtro; buffer es el mapeo en que se encontró
+    interface MatchVisitor {
+        void accept(long timestamp, ByteBuffer buffer, int offset);
+    }
+
+    void scan(long fromMillis, long toMillis, byte[] level, byte[] module, MatchVisitor visitor)
+            throws IOException {
+        long size = committedSize;
+        if (size == 0) {
+            return;
+        }
+        ByteBuffer buf = map(size);
+        int limit = (int) size;
+        int pos = (int) startOffsetFor(fromMillis);
+        while (pos + LogRecordCodec.LENGTH_PREFIX <= limit) {
+            int length = buf.getInt(pos);
+            int next = pos + LogRecordCodec.LENGTH_PREFIX + length;
+            if (length <= 0 || next > limit) {
+                break; // cola incompleta tras una caída
+            }
+            long ts = LogRecordCodec.timestampAt(buf, pos);
+            if (ts >= fromMillis && ts <= toMillis && LogRecordCodec.headerMatches(buf, pos, level, module)) {
+                visitor.accept(ts, buf, pos);
+            }
+            pos = next;
+        }
+    }
+
+    void delete() throws IOException {
+        seal();
+        mapped = null; // el mapeo se libera cuando el GC recoge el buffer
+        Files.deleteIfExists(dataPath);
+        Files.deleteIfExists(indexPath);
+    }
+
+    // Un único mapeo por segmento: se rehace solo si el activo ha crecido desde el último;
+    // el anterior queda sin referencias y lo libera el GC
+    private ByteBuffer map(long size) throws IOException {
+        MappedByteBuffer map = mapped;
+        if (map == null || map.capacity() < size) {
+            map = mapFile(size);
+            mapped = map;
+        }
+        return map;
+    }
+
+    private MappedByteBuffer mapFile(long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(dataPath, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+    }
+
+    private synchronized void addIndexEntry(long maxTs, long offset) {
+        if (indexSize == indexTimes.length) {
+            indexTimes = Arrays.copyOf(indexTimes, indexSize * 2);
+            indexOffsets = Arrays.copyOf(indexOffsets, indexSize * 2);
+        }
+        indexTimes[indexSize] = maxTs;
+        indexOffsets[indexSize] = offset;
+        indexSize++;
+    }
+
+    // Última entrada cuyo maxTs es anterior al inicio del rango: todo lo previo se puede saltar
+    private synchronized long startOffsetFor(long fromMillis) {
+        int lo = 0;
+        int hi = indexSize - 1;
+        long offset = 0;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (indexTimes[mid] < fromMillis) {
+                offset = indexOffsets[mid];
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return offset;
+    }
+
+    private static boolean hasRemaining(ByteBuffer[] buffers) {
+        return buffers.length > 0 && buffers[buffers.length - 1].hasRemaining();
+    }
+}
@@ -1,21 +1,31 @@
 package com.academia.backend.service;
 
-import com.academia.backend.domain.SystemLog;
+import com.academia.backend.config.CorrelationIdFilter;
+import com.academia.backend.domain.LogPolicyAction;
+import com.academia.backend.domain.LogStackTrace;
+import com.academia.backend.dto.LogEntry;
+import com.academia.backend.dto.LogWriterStats;
+import com.academia.backend.dto.StackTraceDto;
 import com.academia.backend.dto.SystemLogDto;
-import com.academia.backend.repo.SystemLogRepo;
-import com.academia.backend.repo.UserRepo;
+import com.academia.backend.repo.LogStackTraceRepo;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.regex.Pattern;
 
 @Service
 public class LogService {
@@ -24,14 +34,28 @@ public class LogService {
 
     // Constants for log levels
     private static final String LOG_LEVEL_INFO = "INFO";
+    private static final String LOG_LEVEL_WARN = "WARN";
     private static final String LOG_LEVEL_ERROR = "ERROR";
+    private static final String LOG_LEVEL_DEBUG = "DEBUG";
 
     // Constants for log patterns
     private static final String LOG_PATTERN_WITH_USER = "[{}] [{}] {} - User: {}";
     private static final String LOG_PATTERN_WITHOUT_USER = "[{}] [{}] {}";
 
-    private final SystemLogRepo systemLogRepo;
-    private final UserRepo userRepo;
+    // Ruta y user agent van a log_dictionary: se guardan reducidos para que el cliente no pueda
+    // crear un valor distinto por request (la URI completa sigue en el mensaje)
+    private static final String UNMAPPED_PATH = "UNMAPPED";
+    private static final Pattern VERSION_DETAIL = Pattern.compile("(\\d+)(?:\\.\\w+)+");
+    private static final int MAX_USER_AGENT_LENGTH = 200;
+
+    private final LogStore logStore;
+    private final SystemLogWriter systemLogWriter;
+    private final LogStackTraceRepo logStackTraceRepo;
+    private final LogRingBuffer logRingBuffer;
+    private final LogPolicyRegistry logPolicyRegistry;
+
+    @Value("${app.logs.defaultQueryWindowDays:7}")
+    long defaultQueryWindowDays;
 
     // Clase interna para parámetros del log
     private static class LogParams {
@@ -57,9 +81,13 @@ public class LogService {
         }
     }
 
-    public LogService(SystemLogRepo systemLogRepo, UserRepo userRepo) {
-        this.systemLogRepo = systemLogRepo;
-        this.userRepo = userRepo;
+    public LogService(LogStore logStore, SystemLogWriter systemLogWriter, LogStackTraceRepo logStackTraceRepo,
+                      LogRingBuffer logRingBuffer, LogPolicyRegistry logPolicyRegistry) {
+        this.logStore = logStore;
+        this.systemLogWriter = systemLogWriter;
+        this.logStackTraceRepo = logStackTraceRepo;
+        this.logRingBuffer = logRingBuffer;
+        this.logPolicyRegistry = logPolicyRegistry;
     }
 
     // Log de información
@@ -95,18 +123,19 @@ public class LogService {
     // Log de advertencia
     public void logWarn(String module, String action, String message, UUID userId) {
         logger.warn(LOG_PATTERN_WITH_USER, module, action, message, userId);
-        this.saveInfoLog(module, action, message, userId); // WARN se guarda como INFO en BD
+        this.saveWarnLog(module, action, message, userId);
     }
 
     public void logWarn(String module, String action, String message) {
         logger.warn(LOG_PATTERN_WITHOUT_USER, module, action, message);
-        this.saveInfoLog(module, action, message, null); // WARN se guarda como INFO en BD
+        this.saveWarnLog(module, action, message, null);
     }
 
     // Log de debug
     public void logDebug(String module, String action, String message) {
         logger.debug(LOG_PATTERN_WITHOUT_USER, module, action, message);
-        // No guardamos debug en BD por defecto para no saturar
+        // Por defecto DEBUG solo va a consola; LogPolicyRegistry permite activarlo por módulo
+        this.saveLog(new LogParams(LOG_LEVEL_DEBUG, module, action, message, null, null, null, null));
     }
 
     // Log de request HTTP
@@ -116,33 +145,45 @@ public class LogService {
         this.saveRequestLog(module, action, message, userId, statusCode, durationMs);
     }
 
-    // Guardar log en base de datos
+    // Encolar log para escritura asíncrona en base de datos
     private void saveLog(LogParams params) {
+        // La política se consulta antes de capturar nada: lo que solo va a consola no cuesta más
+        LogPolicyRegistry.Rule rule = logPolicyRegistry.resolve(params.module, params.logLevel);
+        if (rule.action() == LogPolicyAction.CONSOLE) {
+            return;
+        }
         try {
-            SystemLog log = new SystemLog();
-            log.setLogLevel(params.logLevel);
-            log.setModule(params.module);
-            log.setAction(params.action);
-            log.setMessage(params.message);
-            log.setStatusCode(params.statusCode);
-            log.setDurationMs(params.durationMs);
-
-            if (params.userId != null) {
-                userRepo.findById(params.userId).ifPresent(log::setUser);
-            }
-
-            // Obtener información de la request si está disponible
-            populateRequestInfo(log);
-
-            // Stack trace si hay excepción
-            if (params.exception != null) {
-                log.setStackTrace(getStackTraceAsString(params.exception));
+            // La información de la request y el stack trace se capturan aquí, en el hilo del llamador
+            RequestInfo request = captureRequestInfo();
+            String stackTrace = params.exception != null ? getStackTraceAsString(params.exception) : null;
+            Long stackFingerprint = params.exception != null
+                    ? StackTraceFingerprinter.fingerprint(params.exception) : null;
+
+            LogEntry entry = new LogEntry(
+                    UUID.randomUUID(),
+                    params.logLevel,
+                    params.module,
+                    params.action,
+                    params.message,
+                    params.userId,
+                    request != null ? request.ipAddress : null,
+                    request != null ? request.userAgent : null,
+                    request != null ? request.path : null,
+                    request != null ? request.method : null,
+                    params.statusCode,
+                    params.durationMs,
+                    stackTrace,
+                    stackFingerprint,
+                    MDC.get(CorrelationIdFilter.MDC_KEY),
+                    Instant.now());
+            // El tail en vivo ve también lo que la política muestrea o la cola de escritura descarta
+            logRingBuffer.append(entry);
+            if (rule.shouldPersist()) {
+                systemLogWriter.enqueue(entry);
             }
-
-            systemLogRepo.save(log);
         } catch (Exception e) {
-            // Si falla el guardado del log, solo lo registramos en consola
-            logger.error("Error al guardar log en BD: {}", e.getMessage());
+            // Si falla el encolado del log, solo lo registramos en consola
+            logger.error("Error al encolar log: {}", e.getMessage());
         }
     }
 
@@ -151,6 +192,10 @@ public class LogService {
         this.saveLog(new LogParams(LOG_LEVEL_INFO, module, action, message, userId, null, null, null));
     }
 
+    private void saveWarnLog(String module, String action, String message, UUID userId) {
+        this.saveLog(new LogParams(LOG_LEVEL_WARN, module, action, message, userId, null, null, null));
+    }
+
     private void saveErrorLog(String module, String action, String message, UUID userId, Exception exception) {
         this.saveLog(new LogParams(LOG_LEVEL_ERROR, module, action, message, userId, exception, null, null));
     }
@@ -159,20 +204,48 @@ public class LogService {
         this.saveLog(new LogParams(LOG_LEVEL_INFO, module, action, message, userId, null, statusCode, durationMs));
     }
 
-    private void populateRequestInfo(SystemLog log) {
+    private static class RequestInfo {
+        final String ipAddress;
+        final String userAgent;
+        final String path;
+        final String method;
+
+        RequestInfo(String ipAddress, String userAgent, String path, String method) {
+            this.ipAddress = ipAddress;
+            this.userAgent = userAgent;
+            this.path = path;
+            this.method = method;
+        }
+    }
+
+    private RequestInfo captureRequestInfo() {
         try {
             ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder
                     .getRequestAttributes();
             if (attributes != null) {
                 HttpServletRequest request = attributes.getRequest();
-                log.setIpAddress(getClientIpAddress(request));
-                log.setUserAgent(request.getHeader("User-Agent"));
-                log.setRequestPath(request.getRequestURI());
-                log.setRequestMethod(request.getMethod());
+                return new RequestInfo(getClientIpAddress(request), bucketUserAgent(request.getHeader("User-Agent")),
+                        routeOf(request), request.getMethod());
             }
         } catch (Exception e) {
             // Ignorar si no hay contexto de request
         }
+        return null;
+    }
+
+    // Patrón de la ruta (/api/courses/{id}), como en las métricas de latencia
+    private static String routeOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : UNMAPPED_PATH;
+    }
+
+    // "Chrome/120.0.6099.109" -> "Chrome/120": familia y versión mayor bastan para agrupar
+    private static String bucketUserAgent(String userAgent) {
+        if (userAgent == null) {
+            return null;
+        }
+        String bucketed = VERSION_DETAIL.matcher(userAgent).replaceAll("$1");
+        return bucketed.length() > MAX_USER_AGENT_LENGTH ? bucketed.substring(0, MAX_USER_AGENT_LENGTH) : bucketed;
     }
 
     // Obtener IP del cliente
@@ -197,44 +270,58 @@ public class LogService {
         return sb.toString();
     }
 
-    // Consultar logs
-    @Transactional(readOnly = true)
-    public Page<SystemLogDto> getLogs(Pageable pageable) {
-        return systemLogRepo.findAll(pageable).map(this::toDto);
+    // Consultar logs (sin 'since' se limita a la ventana por defecto para aprovechar el particionado)
+    public Slice<SystemLogDto> getLogs(Instant since, Pageable pageable) {
+        return logStore.findRecent(resolveSince(since), pageable);
     }
 
-    @Transactional(readOnly = true)
-    public Page<SystemLogDto> getLogsByLevel(String level, Pageable pageable) {
-        return systemLogRepo.findByLogLevelOrderByCreatedAtDesc(level, pageable).map(this::toDto);
+    public Slice<SystemLogDto> getLogsByLevel(String level, Instant since, Pageable pageable) {
+        return logStore.findByLevel(level, resolveSince(since), pageable);
+    }
+
+    public Slice<SystemLogDto> getLogsByModule(String module, Instant since, Pageable pageable) {
+        return logStore.findByModule(module, resolveSince(since), pageable);
+    }
+
+    public Slice<SystemLogDto> getLogsBetween(Instant start, Instant end, Pageable pageable) {
+        return logStore.findBetween(start, end, pageable);
     }
 
+    private Instant resolveSince(Instant since) {
+        return since != null ? since : Instant.now().minus(defaultQueryWindowDays, ChronoUnit.DAYS);
+    }
+
+    // Estado de la cola de escritura asíncrona
+    public LogWriterStats getWriterStats() {
+        return systemLogWriter.getStats();
+    }
+
+    // Stack traces más frecuentes (una fila por huella)
     @Transactional(readOnly = true)
-    public Page<SystemLogDto> getLogsByModule(String module, Pageable pageable) {
-        return systemLogRepo.findByModuleOrderByCreatedAtDesc(module, pageable).map(this::toDto);
+    public Page<StackTraceDto> getTopStackTraces(Pageable pageable) {
+        // La huella se expone en hexadecimal: un long de 64 bits no cabe exacto en un número JSON
+        return logStackTraceRepo.findAllByOrderByOccurrencesDesc(pageable).map(this::toStackTraceDto);
     }
 
+    // Stack trace completo por su huella (hexadecimal, como en LogSummaryDto)
     @Transactional(readOnly = true)
-    public Page<SystemLogDto> getLogsBetween(Instant start, Instant end, Pageable pageable) {
-        return systemLogRepo.findLogsBetween(start, end, pageable).map(this::toDto);
-    }
-
-    // Convertir a DTO
-    private SystemLogDto toDto(SystemLog log) {
-        return new SystemLogDto(
-                log.getId(),
-                log.getLogLevel(),
-                log.getModule(),
-                log.getAction(),
-                log.getMessage(),
-                log.getUser() != null ? log.getUser().getId() : null,
-                log.getUser() != null ? log.getUser().getUsername() : null,
-                log.getIpAddress(),
-                log.getUserAgent(),
-                log.getRequestPath(),
-                log.getRequestMethod(),
-                log.getStatusCode(),
-                log.getDurationMs(),
-                log.getStackTrace(),
-                log.getCreatedAt() != null ? log.getCreatedAt().toString() : null);
+    public Optional<StackTraceDto> getStackTrace(String fingerprintHex) {
+        long fingerprint;
+        try {
+            fingerprint = Long.parseUnsignedLong(fingerprintHex, 16);
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+        return logStackTraceRepo.findById(fingerprint).map(this::toStackTraceDto);
+    }
+
+    private StackTraceDto toStackTraceDto(LogStackTrace t) {
+        return new StackTraceDto(
+                Long.toHexString(t.getFingerprint()),
+                t.getExceptionClass(),
+                t.getStackTrace(),
+                t.getFirstSeen().toString(),
+                t.getLastSeen().toString(),
+                t.getOccurrences());
     }
 }
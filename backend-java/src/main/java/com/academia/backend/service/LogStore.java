@@ -0,0 +1,30 @@
+package com.academia.backend.service;
+
+import com.academia.backend.dto.LogEntry;
+import com.academia.backend.dto.SystemLogDto;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Destino de los logs persistidos. La implementación se elige con app.logs.store:
+ * postgres (system_logs, por defecto) o segment (archivos locales de solo anexado).
+ * SystemLogWriter llama a {@link #append} desde su único hilo; las consultas devuelven
+ * los más recientes primero. Devuelven Slice: postgres sigue dando el total (Page), pero el
+ * almacén de segmentos se detiene al completar la página y solo sabe si hay más.
+ */
+public interface LogStore {
+
+    // Guarda un lote y devuelve cuántas entradas quedaron escritas
+    int append(List<LogEntry> batch);
+
+    Slice<SystemLogDto> findRecent(Instant since, Pageable pageable);
+
+    Slice<SystemLogDto> findByLevel(String level, Instant since, Pageable pageable);
+
+    Slice<SystemLogDto> findByModule(String module, Instant since, Pageable pageable);
+
+    Slice<SystemLogDto> findBetween(Instant start, Instant end, Pageable pageable);
+}
@@ -0,0 +1,142 @@
+package com.academia.backend.service;
+
+import com.academia.backend.dto.LogEntry;
+import com.academia.backend.dto.SystemLogDto;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Tail en vivo de logs por SSE. Cada suscriptor tiene su cursor sobre {@link LogRingBuffer}
+ * y un hilo virtual que lo recorre: un cliente lento solo se retrasa a sí mismo y, si la
+ * distancia supera la capacidad del buffer, salta hacia delante con un evento "skipped".
+ * No se consulta la base de datos.
+ */
+@Service
+public class LogStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogStreamService.class);
+
+    private static final int MAX_EVENTS_PER_READ = 256;
+
+    // Filtros del lado del servidor; null significa "sin filtro"
+    public record StreamFilter(String level, String module, UUID userId) {
+        Predicate<LogEntry> toPredicate() {
+            return e -> (level == null || level.equalsIgnoreCase(e.logLevel()))
+                    && (module == null || module.equalsIgnoreCase(e.module()))
+                    && (userId == null || userId.equals(e.userId()));
+        }
+    }
+
+    private final LogRingBuffer ringBuffer;
+    private final Map<UUID, Thread> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    @Value("${app.logs.stream.maxSubscribers:20}")
+    int maxSubscribers;
+    @Value("${app.logs.stream.pollIntervalMs:250}")
+    long pollIntervalMs;
+    @Value("${app.logs.stream.timeoutMs:1800000}")
+    long timeoutMs;
+
+    public LogStreamService(LogRingBuffer ringBuffer) {
+        this.ringBuffer = ringBuffer;
+    }
+
+    // Abre un stream; devuelve null si se alcanzó el máximo de suscriptores
+    public SseEmitter subscribe(StreamFilter filter) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            return null;
+        }
+        UUID id = UUID.randomUUID();
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Runnable release = () -> {
+            Thread thread = subscribers.remove(id);
+            if (thread != null) {
+                subscriberCount.decrementAndGet();
+                thread.interrupt();
+            }
+        };
+        emitter.onCompletion(release);
+        emitter.onTimeout(release);
+        emitter.onError(e -> release.run());
+
+        Thread thread = Thread.ofVirtual().name("log-stream-" + id).unstarted(
+                () -> pump(emitter, filter.toPredicate(), ringBuffer.head(), release));
+        subscribers.put(id, thread);
+        thread.start();
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @PreDestroy
+    void closeAll() {
+        subscribers.values().forEach(Thread::interrupt);
+    }
+
+    private void pump(SseEmitter emitter, Predicate<LogEntry> filter, long cursor, Runnable release) {
+        List<LogEntry> batch = new ArrayList<>(MAX_EVENTS_PER_READ);
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                LogRingBuffer.ReadResult result = ringBuffer.read(cursor, MAX_EVENTS_PER_READ, filter, batch);
+                if (result.skipped() > 0) {
+                    emitter.send(SseEmitter.event().name("skipped").data(result.skipped()));
+                }
+                for (LogEntry entry : batch) {
+                    emitter.send(SseEmitter.event().name("log").id(entry.id().toString()).data(toDto(entry)));
+                }
+                // Sin nada que enviar (o con una entrada aún en vuelo) se espera al siguiente sondeo
+                boolean idle = batch.isEmpty() || result.nextCursor() == ringBuffer.head();
+                cursor = result.nextCursor();
+                batch.clear();
+                if (idle) {
+                    Thread.sleep(pollIntervalMs);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | IllegalStateException e) {
+            // Cliente desconectado
+            logger.debug("Stream de logs cerrado: {}", e.getMessage());
+        } finally {
+            release.run();
+        }
+        emitter.complete();
+    }
+
+    private static SystemLogDto toDto(LogEntry e) {
+        return new SystemLogDto(
+                e.id(),
+                e.logLevel(),
+                e.module(),
+                e.action(),
+                e.message(),
+                e.userId(),
+                null,
+                e.ipAddress(),
+                e.userAgent(),
+                e.requestPath(),
+                e.requestMethod(),
+                e.statusCode(),
+                e.durationMs(),
+                e.stackTrace(),
+                e.correlationId(),
+                e.createdAt().toString());
+    }
+}
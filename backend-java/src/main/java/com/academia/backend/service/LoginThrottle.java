@@ -0,0 +1,270 @@
+package com.academia.backend.service;
+
+import com.academia.backend.dto.LoginThrottleStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limitador de intentos de login y refresh, consultado antes de cualquier acceso a la BD o hash.
+ * - Por IP se cuentan todos los intentos; por identificador, solo los fallidos.
+ * - Ventana deslizante aproximada: ventana anterior ponderada por lo que queda de ella + actual.
+ * - Al pasar el límite la clave queda bloqueada baseBlock * 2^strikes (hasta maxBlock).
+ * Las entradas viven en una tabla de tamaño fijo dividida en franjas de PROBES huecos; cada
+ * hueco se actualiza con CAS, sin locks. Si la franja está llena se expulsa la entrada más
+ * antigua que no esté bloqueada, así la memoria no crece aunque lleguen millones de claves.
+ */
+@Service
+public class LoginThrottle {
+
+    private static final int PROBES = 4;
+    private static final String IP = "ip:";
+    private static final String IDENTIFIER = "id:";
+    private static final String REFRESH = "rt:";
+
+    // Estado de una clave; inmutable para poder reemplazarlo con compareAndSet
+    private record Entry(long key, long windowStart, int previous, int current, int strikes,
+                         long blockedUntil, long lastSeen) {
+
+        boolean isBlocked(long now) {
+            return blockedUntil > now;
+        }
+    }
+
+    private final AtomicReferenceArray<Entry> table;
+    private final int mask;
+
+    private final boolean enabled;
+    private final long windowMs;
+    private final int ipMaxAttempts;
+    private final int identifierMaxFailures;
+    private final int refreshMaxAttempts;
+    private final long baseBlockMs;
+    private final long maxBlockMs;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder blocksIssued = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder swept = new LongAdder();
+
+    public LoginThrottle(@Value("${app.auth.throttle.enabled:true}") boolean enabled,
+                         @Value("${app.auth.throttle.maxEntries:65536}") int maxEntries,
+                         @Value("${app.auth.throttle.windowSeconds:60}") long windowSeconds,
+                         @Value("${app.auth.throttle.ipMaxAttempts:30}") int ipMaxAttempts,
+                         @Value("${app.auth.throttle.identifierMaxFailures:5}") int identifierMaxFailures,
+                         @Value("${app.auth.throttle.refreshMaxAttempts:30}") int refreshMaxAttempts,
+                         @Value("${app.auth.throttle.baseBlockSeconds:30}") long baseBlockSeconds,
+                         @Value("${app.auth.throttle.maxBlockSeconds:900}") long maxBlockSeconds) {
+        int capacity = Integer.highestOneBit(Math.max(PROBES, maxEntries - 1)) << 1;
+        this.table = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        this.enabled = enabled;
+        this.windowMs = windowSeconds * 1000;
+        this.ipMaxAttempts = ipMaxAttempts;
+        this.identifierMaxFailures = identifierMaxFailures;
+        this.refreshMaxAttempts = refreshMaxAttempts;
+        this.baseBlockMs = baseBlockSeconds * 1000;
+        this.maxBlockMs = maxBlockSeconds * 1000;
+    }
+
+    // Antes de buscar el usuario: cuenta el intento de la IP y rechaza si la IP o la cuenta están bloqueadas
+    public void checkLogin(String ip, String identifier) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long identifierBlock = blockedUntil(fingerprint(IDENTIFIER, identifier), now);
+        if (identifierBlock > now) {
+            reject(identifierBlock, now);
+        }
+        long ipBlock = hit(fingerprint(IP, ip), ipMaxAttempts, now);
+        if (ipBlock > now) {
+            reject(ipBlock, now);
+        }
+    }
+
+    // Credenciales incorrectas (o usuario inexistente, para no revelar cuáles existen)
+    public void loginFailed(String identifier) {
+        if (enabled) {
+            hit(fingerprint(IDENTIFIER, identifier), identifierMaxFailures, System.currentTimeMillis());
+        }
+    }
+
+    // Un login correcto olvida los fallos previos de la cuenta
+    public void loginSucceeded(String identifier) {
+        if (!enabled) {
+            return;
+        }
+        long key = fingerprint(IDENTIFIER, identifier);
+        int base = stripe(key);
+        for (int i = 0; i < PROBES; i++) {
+            Entry e = table.get(base + i);
+            if (e != null && e.key() == key && !e.isBlocked(System.currentTimeMillis())) {
+                table.compareAndSet(base + i, e, null);
+            }
+        }
+    }
+
+    // Antes de buscar la sesión por el hash del refresh token
+    public void checkRefresh(String ip) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long block = hit(fingerprint(REFRESH, ip), refreshMaxAttempts, now);
+        if (block > now) {
+            reject(block, now);
+        }
+    }
+
+    // Libera las claves sin actividad reciente y sin bloqueo; con ellas se olvidan los strikes
+    @Scheduled(fixedDelayString = "${app.auth.throttle.sweepMs:60000}")
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < table.length(); i++) {
+            Entry e = table.get(i);
+            if (e != null && isIdle(e, now) && table.compareAndSet(i, e, null)) {
+                swept.increment();
+            }
+        }
+    }
+
+    public LoginThrottleStats stats() {
+        long now = System.currentTimeMillis();
+        int entries = 0;
+        int blocked = 0;
+        for (int i = 0; i < table.length(); i++) {
+            Entry e = table.get(i);
+            if (e != null) {
+                entries++;
+                if (e.isBlocked(now)) {
+                    blocked++;
+                }
+            }
+        }
+        return new LoginThrottleStats(table.length(), entries, blocked, rejected.sum(), blocksIssued.sum(),
+                evictions.sum(), swept.sum());
+    }
+
+    // Registra un intento y devuelve hasta cuándo queda bloqueada la clave (0 si se permite)
+    private long hit(long key, int limit, long now) {
+        int base = stripe(key);
+        while (true) {
+            int slot = -1;
+            Entry victim = null;
+            boolean found = false;
+            for (int i = 0; i < PROBES; i++) {
+                Entry e = table.get(base + i);
+                if (e != null && e.key() == key) {
+                    slot = base + i;
+                    victim = e;
+                    found = true;
+                    break;
+                }
+                // Hueco libre, o la entrada que menos interesa conservar
+                if (slot < 0 || (victim != null && (e == null || preferToEvict(e, victim, now)))) {
+                    slot = base + i;
+                    victim = e;
+                }
+            }
+            if (found && victim.isBlocked(now)) {
+                return victim.blockedUntil();
+            }
+            Entry next = record(found ? victim : null, key, limit, now);
+            if (table.compareAndSet(slot, victim, next)) {
+                if (!found && victim != null) {
+                    evictions.increment();
+                }
+                if (next.isBlocked(now)) {
+                    blocksIssued.increment();
+                    return next.blockedUntil();
+                }
+                return 0;
+            }
+            // Otro hilo cambió el hueco: se vuelve a leer la franja
+        }
+    }
+
+    private long blockedUntil(long key, long now) {
+        int base = stripe(key);
+        for (int i = 0; i < PROBES; i++) {
+            Entry e = table.get(base + i);
+            if (e != null && e.key() == key) {
+                return e.isBlocked(now) ? e.blockedUntil() : 0;
+            }
+        }
+        return 0;
+    }
+
+    private Entry record(Entry e, long key, int limit, long now) {
+        long start = e != null ? e.windowStart() : now;
+        int previous = e != null ? e.previous() : 0;
+        int current = e != null ? e.current() : 0;
+        long elapsed = now - start;
+        if (elapsed >= 2 * windowMs) {
+            start = now;
+            previous = 0;
+            current = 0;
+        } else if (elapsed >= windowMs) {
+            start += windowMs;
+            previous = current;
+            current = 0;
+        }
+        current++;
+        int strikes = e != null ? e.strikes() : 0;
+        double weight = (double) (windowMs - (now - start)) / windowMs;
+        if (previous * weight + current > limit) {
+            long block = Math.min(maxBlockMs, baseBlockMs << Math.min(strikes, 20));
+            return new Entry(key, start, previous, current, strikes + 1, now + block, now);
+        }
+        return new Entry(key, start, previous, current, strikes, e != null ? e.blockedUntil() : 0, now);
+    }
+
+    // Se expulsa antes lo libre de bloqueo y, entre iguales, lo que lleva más tiempo sin verse
+    private static boolean preferToEvict(Entry candidate, Entry current, long now) {
+        if (current == null) {
+            return true;
+        }
+        boolean candidateBlocked = candidate.isBlocked(now);
+        if (candidateBlocked != current.isBlocked(now)) {
+            return !candidateBlocked;
+        }
+        return candidateBlocked
+                ? candidate.blockedUntil() < current.blockedUntil()
+                : candidate.lastSeen() < current.lastSeen();
+    }
+
+    private boolean isIdle(Entry e, long now) {
+        return now - e.lastSeen() >= 2 * windowMs && now >= e.blockedUntil() + maxBlockMs;
+    }
+
+    private void reject(long blockedUntil, long now) {
+        rejected.increment();
+        throw new TooManyAttemptsException("Demasiados intentos, inténtalo más tarde",
+                Math.max(1, (blockedUntil - now + 999) / 1000));
+    }
+
+    private int stripe(long key) {
+        long h = key ^ (key >>> 29);
+        h *= 0xbf58476d1ce4e5b9L;
+        h ^= h >>> 32;
+        return (int) h & mask & -PROBES;
+    }
+
+    // FNV-1a de 64 bits; las colisiones entre claves distintas son despreciables
+    private static long fingerprint(String scope, String value) {
+        String normalized = value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < scope.length(); i++) {
+            h = (h ^ scope.charAt(i)) * 0x100000001b3L;
+        }
+        for (int i = 0; i < normalized.length(); i++) {
+            h = (h ^ normalized.charAt(i)) * 0x100000001b3L;
+        }
+        return h;
+    }
+}
@@ -0,0 +1,246 @@
+package com.academia.backend.service;
+
+import com.academia.backend.dto.PasswordHashingStats;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Hash y verificación Argon2 en un pool propio y acotado. Cada hash reserva memoryKb de heap
+ * (16 MiB sin calibrar) y un núcleo durante decenas de ms, así que los hilos salen del mínimo
+ * entre núcleos y presupuesto de memoria, y se recalculan al aplicar parámetros nuevos. Con la
+ * cola llena o sin turno tras maxWaitMs en cola se lanza HashingUnavailableException
+ * (503 + Retry-After) y el resto de la API no se queda sin hilos.
+ * Un hash que ya ha empezado siempre se espera hasta el final: maxWaitMs solo acota la cola.
+ * Los parámetros vigentes los fija Argon2Calibrator; los hashes guardan los suyos, así que
+ * los antiguos se siguen verificando y se rehacen en segundo plano tras un login correcto.
+ */
+@Service
+public class PasswordHasher {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHasher.class);
+
+    // Parámetros Argon2; versión 0 = defaultsForSpringSecurity_v5_8 (sin calibrar)
+    public record Argon2Params(long version, int memoryKb, int iterations, int parallelism) {
+
+        public static final Argon2Params DEFAULTS = new Argon2Params(0, 1 << 14, 2, 1);
+
+        Argon2PasswordEncoder encoder() {
+            return new Argon2PasswordEncoder(SALT_LENGTH, HASH_LENGTH, parallelism, memoryKb, iterations);
+        }
+
+        boolean sameCost(int memoryKb, int iterations, int parallelism) {
+            return this.memoryKb == memoryKb && this.iterations == iterations && this.parallelism == parallelism;
+        }
+    }
+
+    private static final int SALT_LENGTH = 16;
+    private static final int HASH_LENGTH = 32;
+    // Cabecera del hash codificado: $argon2id$v=19$m=16384,t=2,p=1$...
+    private static final Pattern ENCODED_PARAMS = Pattern.compile("\\$m=(\\d+),t=(\\d+),p=(\\d+)\\$");
+
+    private volatile Argon2Params params = Argon2Params.DEFAULTS;
+    private volatile Argon2PasswordEncoder argon = Argon2Params.DEFAULTS.encoder();
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+    private final double heapFraction;
+    // app.auth.hashing.threads=0: el pool se ajusta a la memoria de los parámetros vigentes
+    private final boolean autoThreads;
+
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+    private final LatencyHistogram hashTime = new LatencyHistogram();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    private final AtomicLong rehashed = new AtomicLong();
+
+    @Value("${app.auth.hashing.maxWaitMs:2000}")
+    long maxWaitMs;
+    @Value("${app.auth.hashing.retryAfterSeconds:5}")
+    long retryAfterSeconds;
+
+    public PasswordHasher(@Value("${app.auth.hashing.threads:0}") int threads,
+                          @Value("${app.auth.hashing.queueCapacity:64}") int queueCapacity,
+                          @Value("${app.auth.hashing.heapFraction:0.25}") double heapFraction) {
+        int poolSize = threads > 0 ? threads : autoSize(heapFraction, Argon2Params.DEFAULTS.memoryKb());
+        this.queueCapacity = queueCapacity;
+        this.heapFraction = heapFraction;
+        this.autoThreads = threads <= 0;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread t = new Thread(r, "argon2-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        logger.info("Pool de hashing Argon2: {} hilos, cola {}", poolSize, queueCapacity);
+    }
+
+    // min(núcleos, heap reservado / memoria por hash), al menos 1
+    private static int autoSize(double heapFraction, int memoryKb) {
+        long budget = (long) (Runtime.getRuntime().maxMemory() * heapFraction);
+        long byMemory = Math.max(1, budget / (memoryKb * 1024L));
+        return (int) Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), byMemory));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public String hash(String raw) {
+        return run(() -> argon.encode(raw));
+    }
+
+    public boolean matches(String raw, String hash) {
+        return run(() -> argon.matches(raw, hash));
+    }
+
+    public Argon2Params params() {
+        return params;
+    }
+
+    public void apply(Argon2Params newParams) {
+        resizePool(newParams.memoryKb());
+        argon = newParams.encoder();
+        params = newParams;
+        logger.info("Parámetros Argon2 v{}: m={} KiB, t={}, p={} ({} hilos)", newParams.version(),
+                newParams.memoryKb(), newParams.iterations(), newParams.parallelism(),
+                executor.getMaximumPoolSize());
+    }
+
+    // Con más memoria por hash caben menos hilos en el presupuesto; con threads fijo solo se avisa
+    private synchronized void resizePool(int memoryKb) {
+        int current = executor.getMaximumPoolSize();
+        if (!autoThreads) {
+            long budget = (long) (Runtime.getRuntime().maxMemory() * heapFraction);
+            if ((long) current * memoryKb * 1024L > budget) {
+                logger.warn("{} hilos de hashing con m={} KiB superan el presupuesto de heap ({} MiB)",
+                        current, memoryKb, budget / (1024 * 1024));
+            }
+            return;
+        }
+        int size = autoSize(heapFraction, memoryKb);
+        // core <= max en todo momento
+        if (size < current) {
+            executor.setCorePoolSize(size);
+            executor.setMaximumPoolSize(size);
+        } else if (size > current) {
+            executor.setMaximumPoolSize(size);
+            executor.setCorePoolSize(size);
+        }
+    }
+
+    // Memoria máxima por hash para que el pool completo quepa en la fracción de heap reservada
+    public int maxMemoryPerHashKb() {
+        long budget = (long) (Runtime.getRuntime().maxMemory() * heapFraction);
+        return (int) Math.min(Integer.MAX_VALUE, budget / executor.getMaximumPoolSize() / 1024);
+    }
+
+    // true si el hash se creó con parámetros distintos de la versión vigente
+    public boolean needsRehash(String hash) {
+        Matcher m = hash != null ? ENCODED_PARAMS.matcher(hash) : null;
+        if (m == null || !m.find()) {
+            return false;
+        }
+        return !params.sameCost(Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2)),
+                Integer.parseInt(m.group(3)));
+    }
+
+    // Rehash sin esperar; si el pool está ocupado se omite y se reintenta en el próximo login
+    public void rehashInBackground(String raw, Consumer<String> onHashed) {
+        if (executor.getQueue().remainingCapacity() < queueCapacity / 2) {
+            return; // se deja la mitad de la cola para logins interactivos
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    onHashed.accept(argon.encode(raw));
+                    rehashed.incrementAndGet();
+                } catch (Exception e) {
+                    logger.warn("No se pudo rehacer el hash de una contraseña: {}", e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // el próximo login lo vuelve a intentar
+        }
+    }
+
+    private <T> T run(Callable<T> task) {
+        long submitted = System.nanoTime();
+        CountDownLatch started = new CountDownLatch(1);
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                started.countDown();
+                long startedAt = System.nanoTime();
+                queueWait.record(TimeUnit.NANOSECONDS.toMillis(startedAt - submitted));
+                try {
+                    return task.call();
+                } finally {
+                    hashTime.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw new HashingUnavailableException("Servicio de autenticación saturado", retryAfterSeconds);
+        }
+        try {
+            // Solo la espera en cola tiene límite; si empezó justo al vencer, cancel falla y se espera
+            if (!started.await(maxWaitMs, TimeUnit.MILLISECONDS) && future.cancel(false)) {
+                timedOut.incrementAndGet();
+                throw new HashingUnavailableException("Servicio de autenticación saturado", retryAfterSeconds);
+            }
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(false);
+            throw new HashingUnavailableException("Hashing interrumpido", retryAfterSeconds);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException("Error en el hashing de contraseña", e.getCause());
+        }
+    }
+
+    public PasswordHashingStats stats() {
+        long[] wait = queueWait.snapshotCounts();
+        long[] hashing = hashTime.snapshotCounts();
+        Argon2Params current = params;
+        return new PasswordHashingStats(
+                current.version(),
+                current.memoryKb(),
+                current.iterations(),
+                current.parallelism(),
+                executor.getMaximumPoolSize(),
+                executor.getActiveCount(),
+                executor.getQueue().size(),
+                queueCapacity,
+                executor.getCompletedTaskCount(),
+                rejected.get(),
+                timedOut.get(),
+                rehashed.get(),
+                LatencyHistogram.percentile(wait, 50),
+                LatencyHistogram.percentile(wait, 99),
+                queueWait.getMaxMs(),
+                LatencyHistogram.percentile(hashing, 50),
+                LatencyHistogram.percentile(hashing, 99));
+    }
+}
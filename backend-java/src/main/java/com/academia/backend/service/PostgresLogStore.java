@@ -0,0 +1,337 @@
+package com.academia.backend.service;
+
+import com.academia.backend.domain.LogDictionaryKind;
+import com.academia.backend.domain.LogStackTrace;
+import com.academia.backend.domain.SystemLog;
+import com.academia.backend.dto.LogEntry;
+import com.academia.backend.dto.SystemLogDto;
+import com.academia.backend.repo.LogStackTraceRepo;
+import com.academia.backend.repo.SystemLogRepo;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * LogStore sobre system_logs: un INSERT multi-fila por lote, con las columnas de texto repetido
+ * codificadas en LogDictionary y los stack traces agrupados por huella en log_stack_traces.
+ * Las tablas creadas por ddl-auto antes de la codificación conservan module/action/... NOT NULL
+ * (Hibernate no borra columnas ni cambia su nulabilidad); al arrancar se migran aquí como en V6.
+ */
+@Service
+@ConditionalOnProperty(name = "app.logs.store", havingValue = "postgres", matchIfMissing = true)
+public class PostgresLogStore implements LogStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostgresLogStore.class);
+
+    private static final String INSERT_PREFIX = "INSERT INTO system_logs (id, log_level, module_id, action_id, "
+            + "message, user_id, ip_address, user_agent_id, request_path_id, request_method, status_code, "
+            + "duration_ms, stack_fingerprint, correlation_id, created_at) VALUES ";
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPSERT_STACK_TRACE_SQL = "INSERT INTO log_stack_traces "
+            + "(fingerprint, exception_class, stack_trace, first_seen, last_seen, occurrences) VALUES (?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT (fingerprint) DO UPDATE SET "
+            + "last_seen = GREATEST(log_stack_traces.last_seen, EXCLUDED.last_seen), "
+            + "occurrences = log_stack_traces.occurrences + EXCLUDED.occurrences";
+
+    // Columnas de texto que sustituyen los ids del diccionario y la huella del stack trace
+    private static final List<String> LEGACY_COLUMNS = List.of("module", "action", "user_agent", "request_path",
+            "stack_trace");
+
+    // Fila lista para insertar, con las cadenas ya sustituidas por ids del diccionario
+    private record EncodedRow(LogEntry entry, Integer moduleId, Integer actionId, Integer userAgentId,
+                              Integer requestPathId) {}
+
+    // Ocurrencias de un mismo stack trace dentro de un lote
+    private static final class StackTraceGroup {
+        final LogEntry first;
+        Instant lastSeen;
+        long occurrences;
+
+        StackTraceGroup(LogEntry first) {
+            this.first = first;
+            this.lastSeen = first.createdAt();
+        }
+    }
+
+    private final JdbcTemplate jdbc;
+    private final LogDictionary logDictionary;
+    private final SystemLogRepo systemLogRepo;
+    private final LogStackTraceRepo logStackTraceRepo;
+    private final TransactionTemplate tx;
+
+    // SQL por tamaño de lote (como mucho batchSize variantes)
+    private final Map<Integer, String> insertSqlBySize = new ConcurrentHashMap<>();
+
+    public PostgresLogStore(JdbcTemplate jdbc, LogDictionary logDictionary, SystemLogRepo systemLogRepo,
+                            LogStackTraceRepo logStackTraceRepo, TransactionTemplate tx) {
+        this.jdbc = jdbc;
+        this.logDictionary = logDictionary;
+        this.systemLogRepo = systemLogRepo;
+        this.logStackTraceRepo = logStackTraceRepo;
+        this.tx = tx;
+    }
+
+    // Antes de que SystemLogWriter empiece a escribir (depende de este bean)
+    @PostConstruct
+    void migrateLegacyColumns() {
+        try {
+            tx.executeWithoutResult(status -> {
+                jdbc.execute("SELECT pg_advisory_xact_lock(hashtext('system_logs_legacy_columns'))");
+                List<String> present = jdbc.queryForList("SELECT column_name FROM information_schema.columns "
+                        + "WHERE table_schema = current_schema() AND table_name = 'system_logs' "
+                        + "AND column_name IN ('module', 'action', 'user_agent', 'request_path', 'stack_trace')",
+                        String.class);
+                if (!present.containsAll(LEGACY_COLUMNS)) {
+                    return;
+                }
+                // ddl-auto no pudo añadir module_id/action_id NOT NULL con filas existentes
+                jdbc.execute("ALTER TABLE system_logs ADD COLUMN IF NOT EXISTS module_id INTEGER, "
+                        + "ADD COLUMN IF NOT EXISTS action_id INTEGER, ADD COLUMN IF NOT EXISTS user_agent_id INTEGER, "
+                        + "ADD COLUMN IF NOT EXISTS request_path_id INTEGER, "
+                        + "ADD COLUMN IF NOT EXISTS stack_fingerprint BIGINT");
+                jdbc.update("INSERT INTO log_dictionary (kind, value) "
+                        + "SELECT DISTINCT 'MODULE', LEFT(module, 1000) FROM system_logs WHERE module IS NOT NULL "
+                        + "UNION SELECT DISTINCT 'ACTION', LEFT(action, 1000) FROM system_logs WHERE action IS NOT NULL "
+                        + "UNION SELECT DISTINCT 'USER_AGENT', LEFT(user_agent, 1000) FROM system_logs "
+                        + "WHERE user_agent IS NOT NULL "
+                        + "UNION SELECT DISTINCT 'REQUEST_PATH', LEFT(request_path, 1000) FROM system_logs "
+                        + "WHERE request_path IS NOT NULL "
+                        + "ON CONFLICT (kind, value) DO NOTHING");
+                int rows = jdbc.update("UPDATE system_logs l SET "
+                        + "module_id = (SELECT d.id FROM log_dictionary d WHERE d.kind = 'MODULE' "
+                        + "AND d.value = LEFT(l.module, 1000)), "
+                        + "action_id = (SELECT d.id FROM log_dictionary d WHERE d.kind = 'ACTION' "
+                        + "AND d.value = LEFT(l.action, 1000)), "
+                        + "user_agent_id = (SELECT d.id FROM log_dictionary d WHERE d.kind = 'USER_AGENT' "
+                        + "AND d.value = LEFT(l.user_agent, 1000)), "
+                        + "request_path_id = (SELECT d.id FROM log_dictionary d WHERE d.kind = 'REQUEST_PATH' "
+                        + "AND d.value = LEFT(l.request_path, 1000)) "
+                        + "WHERE l.module_id IS NULL");
+                // Misma huella derivada del texto que V6 (no agrupa con las que calcula la aplicación)
+                jdbc.update("INSERT INTO log_stack_traces "
+                        + "(fingerprint, exception_class, stack_trace, first_seen, last_seen, occurrences) "
+                        + "SELECT ('x' || LEFT(md5(stack_trace), 16))::bit(64)::bigint, "
+                        + "LEFT(split_part(split_part(MIN(stack_trace), E'\\n', 1), ':', 1), 300), "
+                        + "MIN(stack_trace), MIN(created_at), MAX(created_at), COUNT(*) "
+                        + "FROM system_logs WHERE stack_trace IS NOT NULL GROUP BY stack_trace "
+                        + "ON CONFLICT (fingerprint) DO NOTHING");
+                jdbc.update("UPDATE system_logs SET stack_fingerprint = ('x' || LEFT(md5(stack_trace), 16))::bit(64)::bigint "
+                        + "WHERE stack_trace IS NOT NULL AND stack_fingerprint IS NULL");
+                // Con la columna module se va también el idx_module antiguo
+                jdbc.execute("ALTER TABLE system_logs DROP COLUMN module, DROP COLUMN action, DROP COLUMN user_agent, "
+                        + "DROP COLUMN request_path, DROP COLUMN stack_trace");
+                jdbc.execute("ALTER TABLE system_logs ALTER COLUMN module_id SET NOT NULL, "
+                        + "ALTER COLUMN action_id SET NOT NULL");
+                jdbc.execute("CREATE INDEX IF NOT EXISTS idx_module ON system_logs (module_id, created_at)");
+                logger.info("system_logs migrada a columnas del diccionario ({} filas)", rows);
+            });
+        } catch (Exception e) {
+            logger.error("No se pudieron migrar las columnas antiguas de system_logs: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public int append(List<LogEntry> batch) {
+        List<EncodedRow> rows = encode(batch);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        List<LogEntry> written;
+        try {
+            jdbc.update(insertSql(rows.size()), ps -> {
+                int i = 1;
+                for (EncodedRow row : rows) {
+                    i = bindRow(ps, i, row);
+                }
+            });
+            written = rows.stream().map(EncodedRow::entry).toList();
+        } catch (Exception e) {
+            // Un registro inválido (p.ej. FK de usuario) no debe tumbar el lote completo
+            logger.warn("Fallo el lote de {} logs, reintentando fila a fila: {}", rows.size(), e.getMessage());
+            written = writeOneByOne(rows);
+        }
+        // Después de las filas: occurrences solo cuenta los logs que quedaron guardados
+        upsertStackTraces(written);
+        return written.size();
+    }
+
+    private List<EncodedRow> encode(List<LogEntry> batch) {
+        List<EncodedRow> rows = new ArrayList<>(batch.size());
+        for (LogEntry e : batch) {
+            try {
+                rows.add(new EncodedRow(e,
+                        logDictionary.resolve(LogDictionaryKind.MODULE, e.module()),
+                        logDictionary.resolve(LogDictionaryKind.ACTION, e.action()),
+                        logDictionary.resolve(LogDictionaryKind.USER_AGENT, e.userAgent()),
+                        logDictionary.resolve(LogDictionaryKind.REQUEST_PATH, e.requestPath())));
+            } catch (Exception ex) {
+                logger.error("Error al codificar log: {}", ex.getMessage());
+            }
+        }
+        return rows;
+    }
+
+    // Un solo upsert por huella y lote: durante un incidente miles de errores iguales son una fila
+    private void upsertStackTraces(List<LogEntry> batch) {
+        Map<Long, StackTraceGroup> groups = new LinkedHashMap<>();
+        for (LogEntry e : batch) {
+            if (e.stackFingerprint() == null) {
+                continue;
+            }
+            StackTraceGroup group = groups.computeIfAbsent(e.stackFingerprint(), f -> new StackTraceGroup(e));
+            group.occurrences++;
+            if (e.createdAt().isAfter(group.lastSeen)) {
+                group.lastSeen = e.createdAt();
+            }
+        }
+        groups.forEach((fingerprint, group) -> {
+            try {
+                String trace = group.first.stackTrace();
+                int colon = trace.indexOf(':');
+                String exceptionClass = colon > 0 ? trace.substring(0, colon) : trace.lines().findFirst().orElse("");
+                jdbc.update(UPSERT_STACK_TRACE_SQL, fingerprint,
+                        exceptionClass.length() > 300 ? exceptionClass.substring(0, 300) : exceptionClass,
+                        trace, Timestamp.from(group.first.createdAt()), Timestamp.from(group.lastSeen),
+                        group.occurrences);
+            } catch (Exception e) {
+                logger.error("Error al guardar stack trace {}: {}", fingerprint, e.getMessage());
+            }
+        });
+    }
+
+    private List<LogEntry> writeOneByOne(List<EncodedRow> rows) {
+        String sql = insertSql(1);
+        List<LogEntry> written = new ArrayList<>(rows.size());
+        for (EncodedRow row : rows) {
+            try {
+                jdbc.update(sql, ps -> bindRow(ps, 1, row));
+                written.add(row.entry());
+            } catch (Exception e) {
+                logger.error("Error al guardar log en BD: {}", e.getMessage());
+            }
+        }
+        return written;
+    }
+
+    private static int bindRow(PreparedStatement ps, int i, EncodedRow row) throws SQLException {
+        LogEntry e = row.entry();
+        ps.setObject(i++, e.id());
+        ps.setString(i++, e.logLevel());
+        ps.setObject(i++, row.moduleId(), Types.INTEGER);
+        ps.setObject(i++, row.actionId(), Types.INTEGER);
+        ps.setString(i++, e.message());
+        ps.setObject(i++, e.userId());
+        ps.setString(i++, e.ipAddress());
+        ps.setObject(i++, row.userAgentId(), Types.INTEGER);
+        ps.setObject(i++, row.requestPathId(), Types.INTEGER);
+        ps.setString(i++, e.requestMethod());
+        ps.setObject(i++, e.statusCode(), Types.INTEGER);
+        ps.setObject(i++, e.durationMs(), Types.BIGINT);
+        ps.setObject(i++, e.stackFingerprint(), Types.BIGINT);
+        ps.setString(i++, e.correlationId());
+        ps.setTimestamp(i++, Timestamp.from(e.createdAt()));
+        return i;
+    }
+
+    private String insertSql(int rows) {
+        return insertSqlBySize.computeIfAbsent(rows, PostgresLogStore::buildInsertSql);
+    }
+
+    private static String buildInsertSql(int rows) {
+        StringBuilder sb = new StringBuilder(INSERT_PREFIX.length() + rows * (ROW_PLACEHOLDERS.length() + 2));
+        sb.append(INSERT_PREFIX);
+        for (int r = 0; r < rows; r++) {
+            if (r > 0) {
+                sb.append(", ");
+            }
+            sb.append(ROW_PLACEHOLDERS);
+        }
+        return sb.toString();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<SystemLogDto> findRecent(Instant since, Pageable pageable) {
+        return toDtoPage(systemLogRepo.findByCreatedAtAfterOrderByCreatedAtDesc(since, pageable));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<SystemLogDto> findByLevel(String level, Instant since, Pageable pageable) {
+        return toDtoPage(systemLogRepo.findByLogLevelAndCreatedAtAfterOrderByCreatedAtDesc(level, since, pageable));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<SystemLogDto> findByModule(String module, Instant since, Pageable pageable) {
+        // Un módulo que nunca se ha registrado no tiene id en el diccionario
+        Optional<Integer> moduleId = logDictionary.find(LogDictionaryKind.MODULE, module);
+        if (moduleId.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        return toDtoPage(systemLogRepo.findByModuleIdAndCreatedAtAfterOrderByCreatedAtDesc(moduleId.get(), since,
+                pageable));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<SystemLogDto> findBetween(Instant start, Instant end, Pageable pageable) {
+        return toDtoPage(systemLogRepo.findLogsBetween(start, end, pageable));
+    }
+
+    // Convertir una página a DTO cargando sus stack traces en una sola consulta
+    private Page<SystemLogDto> toDtoPage(Page<SystemLog> page) {
+        var fingerprints = page.getContent().stream()
+                .map(SystemLog::getStackFingerprint)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, String> traces = fingerprints.isEmpty() ? Map.of()
+                : logStackTraceRepo.findAllById(fingerprints).stream()
+                        .collect(Collectors.toMap(LogStackTrace::getFingerprint, LogStackTrace::getStackTrace));
+        return page.map(log -> toDto(log, traces::get));
+    }
+
+    // Convertir a DTO
+    private SystemLogDto toDto(SystemLog log, Function<Long, String> stackTraces) {
+        return new SystemLogDto(
+                log.getId(),
+                log.getLogLevel(),
+                logDictionary.valueOf(log.getModuleId()),
+                logDictionary.valueOf(log.getActionId()),
+                log.getMessage(),
+                log.getUser() != null ? log.getUser().getId() : null,
+                log.getUser() != null ? log.getUser().getUsername() : null,
+                log.getIpAddress(),
+                logDictionary.valueOf(log.getUserAgentId()),
+                logDictionary.valueOf(log.getRequestPathId()),
+                log.getRequestMethod(),
+                log.getStatusCode(),
+                log.getDurationMs(),
+                log.getStackFingerprint() != null ? stackTraces.apply(log.getStackFingerprint()) : null,
+                log.getCorrelationId(),
+                log.getCreatedAt() != null ? log.getCreatedAt().toString() : null);
+    }
+}
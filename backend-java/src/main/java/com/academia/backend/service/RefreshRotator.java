@@ -0,0 +1,139 @@
+package com.academia.backend.service;
+
+import com.academia.backend.domain.SessionEntity;
+import com.academia.backend.repo.SessionRepo;
+import com.academia.backend.repo.UserRepo;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Rotación del refresh token de una sola vez por token presentado. Varias pestañas refrescan
+ * a la vez con la misma cookie; antes la primera rotaba y el resto recibía 401 y acababa en un
+ * login nuevo (con su Argon2).
+ * - En esta instancia: la primera petición rota y las concurrentes, o las que lleguen durante
+ *   graceSeconds, reciben exactamente el mismo resultado (mismo refresh y mismo access).
+ * - Entre instancias: la rotación es un UPDATE condicional y el hash anterior se sigue aceptando
+ *   durante graceSeconds. Quien pierde recibe un access nuevo sin cookie de refresh, porque el
+ *   navegador ya guarda la que puso la petición ganadora.
+ */
+@Service
+public class RefreshRotator {
+
+    // refreshToken es null cuando el cliente debe conservar la cookie que ya tiene
+    public record Rotation(UUID sessionId, UUID userId, String refreshToken, String accessToken) {}
+
+    private final SessionRepo sessions;
+    private final UserRepo users;
+    private final AuthService auth;
+    private final JwtService jwt;
+    private final SessionCache sessionCache;
+    private final SessionActivity sessionActivity;
+    private final Duration grace;
+    private final long waitMs;
+    // Hash presentado -> rotación en curso o recién hecha
+    private final Cache<String, CompletableFuture<Rotation>> recent;
+
+    public RefreshRotator(SessionRepo sessions, UserRepo users, AuthService auth, JwtService jwt,
+                          SessionCache sessionCache, SessionActivity sessionActivity,
+                          @Value("${app.sessions.refresh.graceSeconds:10}") long graceSeconds,
+                          @Value("${app.sessions.refresh.maxWaitMs:5000}") long waitMs,
+                          @Value("${app.sessions.refresh.maxEntries:10000}") long maxEntries) {
+        this.sessions = sessions;
+        this.users = users;
+        this.auth = auth;
+        this.jwt = jwt;
+        this.sessionCache = sessionCache;
+        this.sessionActivity = sessionActivity;
+        this.grace = Duration.ofSeconds(graceSeconds);
+        this.waitMs = waitMs;
+        this.recent = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(grace)
+                .build();
+    }
+
+    public Rotation rotate(String refreshPlain) {
+        byte[] presented = auth.hmacRefresh(refreshPlain);
+        String key = Base64.getEncoder().encodeToString(presented);
+
+        CompletableFuture<Rotation> mine = new CompletableFuture<>();
+        CompletableFuture<Rotation> inFlight = recent.asMap().putIfAbsent(key, mine);
+        if (inFlight != null) {
+            return await(inFlight);
+        }
+        try {
+            Rotation rotation = doRotate(presented);
+            mine.complete(rotation);
+            return rotation;
+        } catch (RuntimeException e) {
+            // Los que esperaban reciben el mismo error; los siguientes vuelven a intentarlo
+            mine.completeExceptionally(e);
+            recent.asMap().remove(key, mine);
+            throw e;
+        }
+    }
+
+    private Rotation doRotate(byte[] presented) {
+        Instant now = Instant.now();
+        SessionEntity row = sessions.findByCurrentOrPreviousRefreshHash(presented)
+                .orElseThrow(RefreshRotator::invalidSession);
+        if (row.isRevoked() || row.getExpiresAt().isBefore(now)) {
+            throw invalidSession();
+        }
+
+        String newPlain = null;
+        if (Arrays.equals(row.getRefreshTokenHash(), presented)) {
+            String candidate = auth.genRandomUrlToken();
+            if (sessions.rotateRefreshHash(row.getId(), presented, auth.hmacRefresh(candidate), now) == 1) {
+                newPlain = candidate;
+                sessionCache.invalidate(row.getId());
+            }
+            // Si no, otra instancia rotó entre la lectura y el UPDATE: cuenta como dentro de la gracia
+        } else if (row.getRotatedAt() == null || row.getRotatedAt().plus(grace).isBefore(now)) {
+            // Hash anterior fuera de la ventana de gracia
+            throw invalidSession();
+        }
+
+        // last_used_at se escribe en lote; la rotación es lo único que va síncrono
+        sessionActivity.touch(row.getId());
+
+        // El rol se relee aquí: los cambios de rol llegan al token en el siguiente refresh
+        String role = users.findById(row.getUserId()).map(u -> u.getRole().name()).orElse(null);
+        String access = jwt.mintAccess(row.getUserId().toString(), row.getId().toString(), role);
+        return new Rotation(row.getId(), row.getUserId(), newPlain, access);
+    }
+
+    private static ResponseStatusException invalidSession() {
+        return new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid or expired session");
+    }
+
+    private Rotation await(CompletableFuture<Rotation> inFlight) {
+        try {
+            return inFlight.get(waitMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Refresh in progress, retry");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Refresh interrupted");
+        }
+    }
+}
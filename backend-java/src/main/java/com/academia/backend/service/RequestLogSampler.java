@@ -0,0 +1,120 @@
+package com.academia.backend.service;
+
+import com.academia.backend.dto.SamplingRules;
+import com.academia.backend.dto.SamplingStatus;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decide, una vez terminada la request, si su log se persiste: siempre los 5xx, los 4xx
+ * de rutas sensibles y las requests lentas; el resto según la tasa configurada.
+ */
+@Service
+public class RequestLogSampler {
+
+    private static final class Counters {
+        final LongAdder seen = new LongAdder();
+        final LongAdder kept = new LongAdder();
+    }
+
+    private final AtomicReference<SamplingRules> rules = new AtomicReference<>();
+    private final ConcurrentHashMap<String, Counters> counters = new ConcurrentHashMap<>();
+
+    @Value("${app.logs.sampling.successRate:0.01}")
+    double successRate;
+    @Value("${app.logs.sampling.clientErrorRate:1.0}")
+    double clientErrorRate;
+    @Value("${app.logs.sampling.slowThresholdMs:1000}")
+    long slowThresholdMs;
+    @Value("${app.logs.sampling.moduleSlowThresholdMs:}")
+    String moduleSlowThresholds; // Auth:500,Transaction:2000
+    @Value("${app.logs.sampling.alwaysKeepClientErrorPaths:/api/auth}")
+    String alwaysKeepPaths; // coma-separado
+
+    @PostConstruct
+    void init() {
+        Map<String, Long> perModule = new HashMap<>();
+        for (String pair : moduleSlowThresholds.split(",")) {
+            String[] kv = pair.split(":");
+            if (kv.length == 2) {
+                perModule.put(kv[0].trim(), Long.parseLong(kv[1].trim()));
+            }
+        }
+        List<String> paths = Arrays.stream(alwaysKeepPaths.split(","))
+                .map(String::trim).filter(s -> !s.isEmpty()).toList();
+        updateRules(new SamplingRules(successRate, clientErrorRate, slowThresholdMs, perModule, paths));
+    }
+
+    public boolean shouldPersist(String module, String path, int status, long durationMs) {
+        SamplingRules r = rules.get();
+        boolean keep = decide(r, module, path, status, durationMs);
+
+        // Las requests descartadas siguen contando para medir el volumen real
+        Counters c = counters.computeIfAbsent(module, m -> new Counters());
+        c.seen.increment();
+        if (keep) {
+            c.kept.increment();
+        }
+        return keep;
+    }
+
+    private static boolean decide(SamplingRules r, String module, String path, int status, long durationMs) {
+        if (status >= 500) {
+            return true;
+        }
+        long threshold = r.moduleSlowThresholdMs().getOrDefault(module, r.slowThresholdMs());
+        if (durationMs >= threshold) {
+            return true;
+        }
+        if (status >= 400) {
+            for (String prefix : r.alwaysKeepClientErrorPaths()) {
+                if (path.startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return sample(r.clientErrorSampleRate());
+        }
+        return sample(r.successSampleRate());
+    }
+
+    private static boolean sample(double rate) {
+        return rate >= 1.0 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    public SamplingRules getRules() {
+        return rules.get();
+    }
+
+    public void updateRules(SamplingRules newRules) {
+        if (newRules.successSampleRate() < 0 || newRules.successSampleRate() > 1
+                || newRules.clientErrorSampleRate() < 0 || newRules.clientErrorSampleRate() > 1) {
+            throw new IllegalArgumentException("Las tasas de muestreo deben estar entre 0 y 1");
+        }
+        if (newRules.slowThresholdMs() < 0
+                || newRules.moduleSlowThresholdMs().values().stream().anyMatch(v -> v == null || v < 0)) {
+            throw new IllegalArgumentException("Los umbrales de latencia no pueden ser negativos");
+        }
+        rules.set(newRules);
+    }
+
+    public SamplingStatus getStatus() {
+        Map<String, SamplingStatus.ModuleCounters> modules = new TreeMap<>();
+        counters.forEach((module, c) -> {
+            long seen = c.seen.sum();
+            long kept = c.kept.sum();
+            modules.put(module, new SamplingStatus.ModuleCounters(seen, kept, seen - kept));
+        });
+        return new SamplingStatus(rules.get(), modules);
+    }
+}
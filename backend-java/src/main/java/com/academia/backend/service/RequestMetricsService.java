@@ -0,0 +1,176 @@
+package com.academia.backend.service;
+
+import com.academia.backend.domain.RequestMetric;
+import com.academia.backend.dto.EndpointLatencyDto;
+import com.academia.backend.repo.RequestMetricRepo;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Agrega latencias de requests en memoria (un histograma por endpoint, método y clase de estado)
+ * y cada minuto persiste una fila compacta por combinación en request_metrics. Las filas más
+ * antiguas que retentionDays se borran cada día.
+ */
+@Service
+public class RequestMetricsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestMetricsService.class);
+
+    private record MetricKey(String method, String endpoint, String statusClass) {}
+
+    // Intervalo en curso; se sustituye por uno nuevo en cada flush
+    private static final class Interval {
+        final Instant start;
+        final ConcurrentHashMap<MetricKey, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+        // record() que aún escriben en este intervalo; flush espera a que lleguen a 0
+        final AtomicInteger writers = new AtomicInteger();
+
+        Interval(Instant start) {
+            this.start = start;
+        }
+    }
+
+    private final RequestMetricRepo requestMetricRepo;
+    private final long retentionDays;
+    private volatile Interval current = new Interval(Instant.now().truncatedTo(ChronoUnit.MINUTES));
+
+    public RequestMetricsService(RequestMetricRepo requestMetricRepo,
+                                 @Value("${app.metrics.requests.retentionDays:30}") long retentionDays) {
+        this.requestMetricRepo = requestMetricRepo;
+        this.retentionDays = retentionDays;
+    }
+
+    public void record(String method, String endpoint, int status, long durationMs) {
+        MetricKey key = new MetricKey(method, endpoint, (status / 100) + "xx");
+        while (true) {
+            Interval interval = current;
+            interval.writers.incrementAndGet();
+            try {
+                // Si flush ya lo cambió, este intervalo puede estar guardándose: se usa el nuevo
+                if (interval == current) {
+                    interval.histograms.computeIfAbsent(key, k -> new LatencyHistogram()).record(durationMs);
+                    return;
+                }
+            } finally {
+                interval.writers.decrementAndGet();
+            }
+        }
+    }
+
+    @Scheduled(cron = "0 * * * * *")
+    public void flush() {
+        Interval finished = current;
+        current = new Interval(Instant.now().truncatedTo(ChronoUnit.MINUTES));
+        // Los record() que vieron el intervalo anterior antes del cambio terminan en microsegundos
+        while (finished.writers.get() > 0) {
+            Thread.onSpinWait();
+        }
+        if (finished.histograms.isEmpty()) {
+            return;
+        }
+        try {
+            requestMetricRepo.saveAll(toRows(finished));
+        } catch (Exception e) {
+            logger.error("Error al guardar métricas de requests: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    @Scheduled(cron = "${app.metrics.requests.retentionCron:0 30 0 * * *}")
+    public void applyRetention() {
+        try {
+            int deleted = requestMetricRepo.deleteOlderThan(Instant.now().minus(retentionDays, ChronoUnit.DAYS));
+            if (deleted > 0) {
+                logger.info("Eliminadas {} filas de request_metrics por retención", deleted);
+            }
+        } catch (Exception e) {
+            logger.error("Error al aplicar la retención de request_metrics: {}", e.getMessage());
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<EndpointLatencyDto> getLatencies(Instant from, Instant to, String endpoint) {
+        List<RequestMetric> rows = endpoint != null
+                ? requestMetricRepo.findByEndpointAndBucketStartGreaterThanEqualAndBucketStartLessThan(endpoint, from, to)
+                : requestMetricRepo.findByBucketStartGreaterThanEqualAndBucketStartLessThan(from, to);
+        rows = new ArrayList<>(rows);
+
+        // El minuto en curso aún no está en BD
+        Interval live = current;
+        if (!live.start.isBefore(from) && live.start.isBefore(to)) {
+            toRows(live).stream()
+                    .filter(r -> endpoint == null || endpoint.equals(r.getEndpoint()))
+                    .forEach(rows::add);
+        }
+
+        Map<MetricKey, RequestMetric> merged = new HashMap<>();
+        for (RequestMetric row : rows) {
+            MetricKey key = new MetricKey(row.getRequestMethod(), row.getEndpoint(), row.getStatusClass());
+            RequestMetric acc = merged.computeIfAbsent(key, k -> {
+                RequestMetric m = new RequestMetric();
+                m.setRequestMethod(k.method());
+                m.setEndpoint(k.endpoint());
+                m.setStatusClass(k.statusClass());
+                m.setHistogram(new long[0]);
+                return m;
+            });
+            acc.setRequestCount(acc.getRequestCount() + row.getRequestCount());
+            acc.setTotalMs(acc.getTotalMs() + row.getTotalMs());
+            acc.setMaxMs(Math.max(acc.getMaxMs(), row.getMaxMs()));
+            acc.setHistogram(LatencyHistogram.merge(acc.getHistogram(), row.getHistogram()));
+        }
+
+        double seconds = Math.max(1, Duration.between(from, to).getSeconds());
+        return merged.values().stream()
+                .map(m -> new EndpointLatencyDto(
+                        m.getRequestMethod(),
+                        m.getEndpoint(),
+                        m.getStatusClass(),
+                        m.getRequestCount(),
+                        m.getRequestCount() / seconds,
+                        m.getRequestCount() > 0 ? (double) m.getTotalMs() / m.getRequestCount() : 0,
+                        LatencyHistogram.percentile(m.getHistogram(), 50),
+                        LatencyHistogram.percentile(m.getHistogram(), 95),
+                        LatencyHistogram.percentile(m.getHistogram(), 99),
+                        m.getMaxMs()))
+                .sorted(Comparator.comparingLong(EndpointLatencyDto::requestCount).reversed())
+                .toList();
+    }
+
+    private static List<RequestMetric> toRows(Interval interval) {
+        List<RequestMetric> rows = new ArrayList<>(interval.histograms.size());
+        interval.histograms.forEach((key, histogram) -> {
+            RequestMetric row = new RequestMetric();
+            row.setBucketStart(interval.start);
+            row.setRequestMethod(key.method());
+            row.setEndpoint(key.endpoint());
+            row.setStatusClass(key.statusClass());
+            row.setRequestCount(histogram.getTotalCount());
+            row.setTotalMs(histogram.getTotalMs());
+            row.setMaxMs(histogram.getMaxMs());
+            row.setHistogram(histogram.snapshotCounts());
+            rows.add(row);
+        });
+        return rows;
+    }
+}
@@ -0,0 +1,274 @@
+package com.academia.backend.service;
+
+import com.academia.backend.dto.LogEntry;
+import com.academia.backend.dto.SystemLogDto;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * LogStore en archivos locales: segmentos de solo anexado que rotan por tiempo o tamaño,
+ * con registros binarios con prefijo de longitud (LogRecordCodec) e índice disperso por tiempo.
+ * Las consultas mapean los segmentos en memoria y filtran nivel/módulo leyendo solo la cabecera.
+ * Se activa con app.logs.store=segment; así los logs no compiten con las transacciones por
+ * conexiones ni WAL de Postgres. /api/logs/search y los stack traces deduplicados siguen
+ * dependiendo de Postgres.
+ */
+@Service
+@ConditionalOnProperty(name = "app.logs.store", havingValue = "segment")
+public class SegmentFileLogStore implements LogStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(SegmentFileLogStore.class);
+
+    // Margen por entradas capturadas justo antes de rotar y escritas en el segmento siguiente
+    private static final long SEGMENT_SKEW_MS = 60_000;
+    // Las posiciones en un segmento mapeado son int
+    private static final long MAX_SEGMENT_BYTES = Integer.MAX_VALUE;
+
+    @Value("${app.logs.segments.dir:logs/segments}")
+    String dir;
+    @Value("${app.logs.segments.rollMinutes:60}")
+    long rollMinutes;
+    @Value("${app.logs.segments.maxSegmentMb:256}")
+    long maxSegmentMb;
+    @Value("${app.logs.segments.indexInterval:64}")
+    int indexInterval;
+    @Value("${app.logs.segments.retentionDays:30}")
+    long retentionDays;
+
+    // inicio del segmento (ms) -> segmento
+    private final ConcurrentSkipListMap<Long, LogSegment> segments = new ConcurrentSkipListMap<>();
+    private Path directory;
+    private long maxSegmentBytes;
+    // Solo lo usa el hilo de SystemLogWriter
+    private LogSegment active;
+
+    @PostConstruct
+    void init() throws IOException {
+        directory = Paths.get(dir);
+        Files.createDirectories(directory);
+        maxSegmentBytes = Math.min(maxSegmentMb * 1024 * 1024, MAX_SEGMENT_BYTES);
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(LogSegment::isDataFile).toList()) {
+                LogSegment segment = LogSegment.open(file);
+                segments.put(segment.startMillis, segment);
+            }
+        }
+        logger.info("Almacén de logs en segmentos: {} ({} segmentos existentes)", directory.toAbsolutePath(),
+                segments.size());
+    }
+
+    @PreDestroy
+    void close() {
+        try {
+            if (active != null) {
+                active.seal();
+            }
+        } catch (IOException e) {
+            logger.warn("Error al cerrar el segmento activo: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public int append(List<LogEntry> batch) {
+        List<byte[]> records = new ArrayList<>(batch.size());
+        List<Long> timestamps = new ArrayList<>(batch.size());
+        long pendingBytes = 0;
+        int written = 0;
+        try {
+            for (LogEntry entry : batch) {
+                byte[] record = LogRecordCodec.encode(entry);
+                if (needsRoll(pendingBytes + record.length)) {
+                    written += flush(records, timestamps);
+                    pendingBytes = 0;
+                    roll(entry.createdAt().toEpochMilli());
+                }
+                records.add(record);
+                timestamps.add(entry.createdAt().toEpochMilli());
+                pendingBytes += record.length;
+            }
+            written += flush(records, timestamps);
+        } catch (IOException e) {
+            logger.error("Error al escribir logs en {}: {}", active != null ? active.dataPath : directory,
+                    e.getMessage());
+        }
+        return written;
+    }
+
+    private boolean needsRoll(long pendingBytes) {
+        if (active == null) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        return now >= active.createdMillis + rollMinutes * 60_000
+                || (active.size() + pendingBytes > maxSegmentBytes && active.size() > 0);
+    }
+
+    private int flush(List<byte[]> records, List<Long> timestamps) throws IOException {
+        if (records.isEmpty()) {
+            return 0;
+        }
+        active.append(records, timestamps, indexInterval);
+        int count = records.size();
+        records.clear();
+        timestamps.clear();
+        return count;
+    }
+
+    // El segmento nuevo empieza en la fecha de su primer registro (la cola puede ir retrasada)
+    private void roll(long firstTimestamp) throws IOException {
+        if (active != null) {
+            active.seal();
+        }
+        // El inicio nunca retrocede, para mantener el orden de los nombres
+        long start = Math.max(firstTimestamp, segments.isEmpty() ? 0 : segments.lastKey() + 1);
+        active = LogSegment.create(directory, start);
+        segments.put(start, active);
+    }
+
+    // Borra los segmentos cuyo contenido es completamente anterior a la retención
+    @Scheduled(cron = "${app.logs.partitions.cron:0 15 0 * * *}")
+    public void applyRetention() {
+        long cutoff = Instant.now().minus(retentionDays, ChronoUnit.DAYS).toEpochMilli();
+        for (Map.Entry<Long, LogSegment> e : segments.entrySet()) {
+            Long nextStart = segments.higherKey(e.getKey());
+            if (nextStart == null || nextStart >= cutoff || !e.getValue().isSealed()) {
+                break;
+            }
+            try {
+                segments.remove(e.getKey());
+                e.getValue().delete();
+                logger.info("Segmento de logs eliminado por retención: {}", e.getValue().dataPath.getFileName());
+            } catch (IOException ex) {
+                logger.error("No se pudo eliminar {}: {}", e.getValue().dataPath, ex.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public Slice<SystemLogDto> findRecent(Instant since, Pageable pageable) {
+        return query(since.toEpochMilli(), Long.MAX_VALUE, null, null, pageable);
+    }
+
+    @Override
+    public Slice<SystemLogDto> findByLevel(String level, Instant since, Pageable pageable) {
+        return query(since.toEpochMilli(), Long.MAX_VALUE, level, null, pageable);
+    }
+
+    @Override
+    public Slice<SystemLogDto> findByModule(String module, Instant since, Pageable pageable) {
+        return query(since.toEpochMilli(), Long.MAX_VALUE, null, module, pageable);
+    }
+
+    @Override
+    public Slice<SystemLogDto> findBetween(Instant start, Instant end, Pageable pageable) {
+        return query(start.toEpochMilli(), end.toEpochMilli(), null, null, pageable);
+    }
+
+    // Recorre los segmentos del rango del más nuevo al más antiguo guardando solo los offset+size+1
+    // más recientes; se detiene en cuanto ningún segmento más antiguo puede mejorarlos. Sin total
+    // exacto: el registro de más indica si hay página siguiente. Solo se decodifica la página pedida.
+    private Slice<SystemLogDto> query(long fromMillis, long toMillis, String level, String module,
+                                      Pageable pageable) {
+        byte[] levelBytes = level != null ? level.getBytes(StandardCharsets.UTF_8) : null;
+        byte[] moduleBytes = module != null ? module.getBytes(StandardCharsets.UTF_8) : null;
+        long skip = pageable.getOffset();
+        int size = pageable.getPageSize();
+        int keep = (int) Math.min(skip + size + 1, Integer.MAX_VALUE - 8);
+        // Montículo por timestamp: la cabeza es la más antigua de las que se conservan
+        PriorityQueue<LogSegment.Match> top = new PriorityQueue<>(
+                Comparator.comparingLong(LogSegment.Match::timestamp));
+
+        for (LogSegment segment : candidates(fromMillis, toMillis)) {
+            // Un segmento no tiene registros posteriores al inicio del siguiente + margen
+            Long nextStart = segments.higherKey(segment.startMillis);
+            if (top.size() == keep && nextStart != null
+                    && top.peek().timestamp() > nextStart + SEGMENT_SKEW_MS) {
+                break;
+            }
+            try {
+                segment.scan(fromMillis, toMillis, levelBytes, moduleBytes, (ts, buffer, offset) -> {
+                    if (top.size() < keep) {
+                        top.add(new LogSegment.Match(ts, buffer, offset));
+                    } else if (ts > top.peek().timestamp()) {
+                        top.poll();
+                        top.add(new LogSegment.Match(ts, buffer, offset));
+                    }
+                });
+            } catch (IOException e) {
+                logger.error("Error al leer {}: {}", segment.dataPath, e.getMessage());
+            }
+        }
+
+        boolean hasNext = top.size() == keep;
+        if (hasNext) {
+            top.poll();
+        }
+        List<LogSegment.Match> newestFirst = new ArrayList<>(top);
+        newestFirst.sort(Comparator.comparingLong(LogSegment.Match::timestamp).reversed());
+        List<SystemLogDto> content = new ArrayList<>(size);
+        for (int i = (int) Math.min(skip, newestFirst.size()); i < newestFirst.size(); i++) {
+            content.add(toDto(newestFirst.get(i).decode()));
+        }
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    private List<LogSegment> candidates(long fromMillis, long toMillis) {
+        List<LogSegment> result = new ArrayList<>();
+        for (Map.Entry<Long, LogSegment> e : segments.descendingMap().entrySet()) {
+            if (e.getKey() - SEGMENT_SKEW_MS > toMillis) {
+                continue;
+            }
+            Long nextStart = segments.higherKey(e.getKey());
+            if (nextStart != null && nextStart + SEGMENT_SKEW_MS < fromMillis) {
+                break;
+            }
+            result.add(e.getValue());
+        }
+        return result;
+    }
+
+    // Sin join con users: el nombre de usuario no está disponible en este almacén
+    private static SystemLogDto toDto(LogEntry e) {
+        return new SystemLogDto(
+                e.id(),
+                e.logLevel(),
+                e.module(),
+                e.action(),
+                e.message(),
+                e.userId(),
+                null,
+                e.ipAddress(),
+                e.userAgent(),
+                e.requestPath(),
+                e.requestMethod(),
+                e.statusCode(),
+                e.durationMs(),
+                e.stackTrace(),
+                e.correlationId(),
+                e.createdAt().toString());
+    }
+}
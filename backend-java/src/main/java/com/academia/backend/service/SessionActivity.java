@@ -0,0 +1,133 @@
+package com.academia.backend.service;
+
+import com.academia.backend.dto.SessionActivityStats;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Última actividad de cada sesión (requests autenticadas y refresh), acumulada en memoria y
+ * escrita cada flushMs con un UPDATE ... FROM (VALUES ...) por lote en lugar de un UPDATE por
+ * request. Por sesión solo se guarda el último instante visto; en la BD nunca se retrocede
+ * (otra instancia puede haber escrito uno más reciente). last_used_at va, como mucho, flushMs
+ * por detrás de la realidad.
+ */
+@Service
+public class SessionActivity {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionActivity.class);
+
+    private static final String UPDATE_PREFIX = "UPDATE sessions AS s SET last_used_at = v.last_used_at FROM (VALUES ";
+    private static final String ROW_PLACEHOLDERS = "(?::uuid, ?::timestamp)";
+    private static final String UPDATE_SUFFIX = ") AS v(id, last_used_at) WHERE s.id = v.id "
+            + "AND (s.last_used_at IS NULL OR s.last_used_at < v.last_used_at)";
+
+    private final JdbcTemplate jdbc;
+
+    @Value("${app.sessions.activity.enabled:true}")
+    boolean enabled;
+    @Value("${app.sessions.activity.batchSize:1000}")
+    int batchSize;
+
+    // sid -> último instante de actividad (ms) pendiente de escribir
+    private final Map<UUID, Long> pending = new ConcurrentHashMap<>();
+    private final Map<Integer, String> updateSqlBySize = new ConcurrentHashMap<>();
+
+    private final AtomicLong touches = new AtomicLong();
+    private final AtomicLong rowsFlushed = new AtomicLong();
+    private final AtomicLong statements = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private volatile long lastFlushMillis;
+    private volatile int lastFlushRows;
+
+    public SessionActivity(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    // Camino caliente: solo un put en el mapa
+    public void touch(UUID sessionId) {
+        if (enabled) {
+            pending.put(sessionId, System.currentTimeMillis());
+            touches.incrementAndGet();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.sessions.activity.flushMs:30000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        // remove() devuelve el último valor; lo que llegue después queda para el siguiente flush
+        List<Map.Entry<UUID, Long>> batch = new ArrayList<>(pending.size());
+        for (UUID sessionId : pending.keySet()) {
+            Long at = pending.remove(sessionId);
+            if (at != null) {
+                batch.add(Map.entry(sessionId, at));
+            }
+        }
+        int written = 0;
+        for (int from = 0; from < batch.size(); from += batchSize) {
+            List<Map.Entry<UUID, Long>> chunk = batch.subList(from, Math.min(batch.size(), from + batchSize));
+            try {
+                jdbc.update(updateSql(chunk.size()), ps -> {
+                    int i = 1;
+                    for (Map.Entry<UUID, Long> e : chunk) {
+                        ps.setObject(i++, e.getKey());
+                        ps.setTimestamp(i++, Timestamp.from(Instant.ofEpochMilli(e.getValue())));
+                    }
+                });
+                statements.incrementAndGet();
+                written += chunk.size();
+            } catch (Exception ex) {
+                failures.incrementAndGet();
+                logger.warn("No se pudo guardar la actividad de {} sesiones: {}", chunk.size(), ex.getMessage());
+                // Se reintenta en el siguiente flush sin pisar actividad más reciente
+                chunk.forEach(e -> pending.merge(e.getKey(), e.getValue(), Math::max));
+            }
+        }
+        rowsFlushed.addAndGet(written);
+        lastFlushRows = written;
+        lastFlushMillis = System.currentTimeMillis() - started;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+
+    public SessionActivityStats stats() {
+        return new SessionActivityStats(pending.size(), touches.get(), rowsFlushed.get(), statements.get(),
+                failures.get(), lastFlushRows, lastFlushMillis);
+    }
+
+    private String updateSql(int rows) {
+        return updateSqlBySize.computeIfAbsent(rows, SessionActivity::buildUpdateSql);
+    }
+
+    private static String buildUpdateSql(int rows) {
+        StringBuilder sb = new StringBuilder(UPDATE_PREFIX.length() + UPDATE_SUFFIX.length()
+                + rows * (ROW_PLACEHOLDERS.length() + 2));
+        sb.append(UPDATE_PREFIX);
+        for (int r = 0; r < rows; r++) {
+            if (r > 0) {
+                sb.append(", ");
+            }
+            sb.append(ROW_PLACEHOLDERS);
+        }
+        return sb.append(UPDATE_SUFFIX).toString();
+    }
+}
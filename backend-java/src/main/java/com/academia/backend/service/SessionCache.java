@@ -0,0 +1,94 @@
+package com.academia.backend.service;
+
+import com.academia.backend.domain.SessionEntity;
+import com.academia.backend.dto.SessionCacheStats;
+import com.academia.backend.repo.SessionRepo;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Caché acotada del estado de las sesiones que consulta JwtFilter en cada request autenticada.
+ * Guarda también los "no encontrado" (con un TTL menor) para que un sid inexistente no llegue
+ * siempre a la BD. Logout, refresh y cambio de contraseña invalidan la entrada al momento;
+ * los cambios hechos desde otra instancia se ven como mucho tras ttlSeconds.
+ */
+@Service
+public class SessionCache {
+
+    // Lo mínimo que necesita el filtro para aceptar un token
+    public record SessionState(UUID userId, boolean revoked, Instant expiresAt) {
+
+        boolean isActive(Instant now) {
+            return !revoked && expiresAt.isAfter(now);
+        }
+    }
+
+    private final SessionRepo sessions;
+    private final Cache<UUID, Optional<SessionState>> cache;
+
+    public SessionCache(SessionRepo sessions,
+                        @Value("${app.sessions.cache.maxSize:100000}") long maxSize,
+                        @Value("${app.sessions.cache.ttlSeconds:30}") long ttlSeconds,
+                        @Value("${app.sessions.cache.negativeTtlSeconds:5}") long negativeTtlSeconds) {
+        this.sessions = sessions;
+        long ttlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+        long negativeTtlNanos = Duration.ofSeconds(negativeTtlSeconds).toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<UUID, Optional<SessionState>>() {
+                    @Override
+                    public long expireAfterCreate(UUID key, Optional<SessionState> value, long currentTime) {
+                        return value.isPresent() ? ttlNanos : negativeTtlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(UUID key, Optional<SessionState> value, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(UUID key, Optional<SessionState> value, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    // true si la sesión existe, no está revocada y no ha expirado
+    public boolean isActive(UUID sessionId) {
+        Optional<SessionState> state = cache.get(sessionId,
+                id -> sessions.findById(id).map(SessionCache::toState));
+        return state.isPresent() && state.get().isActive(Instant.now());
+    }
+
+    public void invalidate(UUID sessionId) {
+        cache.invalidate(sessionId);
+    }
+
+    // Todas las sesiones cacheadas de un usuario (p.ej. tras revocarlas en bloque)
+    public void invalidateUser(UUID userId) {
+        cache.asMap().values().removeIf(state -> state.isPresent() && state.get().userId().equals(userId));
+    }
+
+    public SessionCacheStats stats() {
+        CacheStats s = cache.stats();
+        return new SessionCacheStats(cache.estimatedSize(), s.hitCount(), s.missCount(), s.hitRate(),
+                s.evictionCount(), s.loadFailureCount(), s.totalLoadTime() / Math.max(1, s.loadCount()));
+    }
+
+    private static SessionState toState(SessionEntity row) {
+        return new SessionState(row.getUserId(), row.isRevoked(), row.getExpiresAt());
+    }
+}
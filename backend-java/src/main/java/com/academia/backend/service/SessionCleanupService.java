@@ -0,0 +1,126 @@
+package com.academia.backend.service;
+
+import com.academia.backend.dto.SessionCleanupStats;
+import com.academia.backend.repo.SessionRepo;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Borra las sesiones expiradas y las revocadas sin actividad desde hace revokedRetentionHours.
+ * Cada login crea una fila con 60 días de vida y nada las eliminaba, así que la tabla (y sus
+ * índices) solo crecían. Se borra en lotes pequeños, cada uno en su transacción y con una pausa
+ * entre ellos, para no bloquear filas ni generar WAL de golpe; si quedan más de
+ * maxBatchesPerRun lotes, la siguiente ejecución continúa.
+ * Las expiradas usan idx_sessions_expires_at (SessionEntity); las revocadas, un índice parcial
+ * de expresión que ddl-auto no sabe declarar y que se crea al arrancar (el mismo que V11).
+ */
+@Service
+public class SessionCleanupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionCleanupService.class);
+
+    private final SessionRepo sessions;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+
+    @Value("${app.sessions.cleanup.enabled:true}")
+    boolean enabled;
+    @Value("${app.sessions.cleanup.batchSize:1000}")
+    int batchSize;
+    @Value("${app.sessions.cleanup.maxBatchesPerRun:200}")
+    int maxBatchesPerRun;
+    @Value("${app.sessions.cleanup.pauseMs:50}")
+    long pauseMs;
+    @Value("${app.sessions.cleanup.revokedRetentionHours:24}")
+    long revokedRetentionHours;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong currentRunDeleted = new AtomicLong();
+    private final AtomicLong totalDeleted = new AtomicLong();
+    private final AtomicLong failedRuns = new AtomicLong();
+    private volatile Instant lastRunStartedAt;
+    private volatile long lastRunMillis;
+    private volatile long lastRunDeleted;
+    private volatile int lastRunBatches;
+    private volatile boolean lastRunComplete;
+
+    public SessionCleanupService(SessionRepo sessions, JdbcTemplate jdbc, TransactionTemplate tx) {
+        this.sessions = sessions;
+        this.jdbc = jdbc;
+        this.tx = tx;
+    }
+
+    // Se ejecuta después de que ddl-auto cree sessions (SessionRepo depende del EntityManagerFactory).
+    // La expresión debe coincidir con la de deleteStaleBatch para que el planificador use el índice
+    @PostConstruct
+    void ensureIndexes() {
+        try {
+            tx.executeWithoutResult(status -> {
+                jdbc.execute("SELECT pg_advisory_xact_lock(hashtext('sessions_cleanup_indexes'))");
+                jdbc.execute("CREATE INDEX IF NOT EXISTS idx_sessions_revoked_last_activity "
+                        + "ON sessions ((COALESCE(last_used_at, created_at))) WHERE is_revoked");
+            });
+        } catch (Exception e) {
+            logger.error("No se pudo crear el índice de limpieza de sesiones: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.sessions.cleanup.intervalMs:600000}",
+            initialDelayString = "${app.sessions.cleanup.initialDelayMs:60000}")
+    public void cleanup() {
+        if (!enabled || !running.compareAndSet(false, true)) {
+            return;
+        }
+        Instant started = Instant.now();
+        currentRunDeleted.set(0);
+        int batches = 0;
+        boolean complete = false;
+        try {
+            // Se fijan al inicio: lo que caduque durante la ejecución queda para la siguiente
+            Instant revokedBefore = started.minus(revokedRetentionHours, ChronoUnit.HOURS);
+            while (batches < maxBatchesPerRun) {
+                int deleted = sessions.deleteStaleBatch(started, revokedBefore, batchSize);
+                batches++;
+                currentRunDeleted.addAndGet(deleted);
+                totalDeleted.addAndGet(deleted);
+                if (deleted < batchSize) {
+                    complete = true;
+                    break;
+                }
+                Thread.sleep(pauseMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            failedRuns.incrementAndGet();
+            logger.error("Error limpiando sesiones caducadas: {}", e.getMessage());
+        } finally {
+            lastRunStartedAt = started;
+            lastRunMillis = Instant.now().toEpochMilli() - started.toEpochMilli();
+            lastRunDeleted = currentRunDeleted.get();
+            lastRunBatches = batches;
+            lastRunComplete = complete;
+            running.set(false);
+        }
+        if (lastRunDeleted > 0) {
+            logger.info("Sesiones caducadas eliminadas: {} en {} lotes ({} ms){}", lastRunDeleted, batches,
+                    lastRunMillis, complete ? "" : ", quedan más para la siguiente ejecución");
+        }
+    }
+
+    public SessionCleanupStats stats() {
+        return new SessionCleanupStats(running.get(), currentRunDeleted.get(), lastRunStartedAt, lastRunMillis,
+                lastRunDeleted, lastRunBatches, lastRunComplete, totalDeleted.get(), failedRuns.get());
+    }
+}
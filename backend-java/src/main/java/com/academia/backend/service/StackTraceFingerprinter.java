@@ -0,0 +1,56 @@
+package com.academia.backend.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.regex.Pattern;
+
+/**
+ * Calcula una huella estable de una excepción: clase y frames (clase.método) de la cadena
+ * de causas, sin mensajes ni números de línea ni sufijos generados (proxies, lambdas).
+ * Así la misma falla produce la misma huella aunque cambien los datos o el despliegue.
+ */
+public final class StackTraceFingerprinter {
+
+  private static final Pattern GENERATED_SUFFIX = Pattern.compile(
+      "\\$\\$(SpringCGLIB|EnhancerBySpringCGLIB|FastClassBySpringCGLIB|HibernateProxy)\\$\\$[0-9a-f]+"
+          + "|\\$\\$Lambda(\\$\\d+)?/0x[0-9a-f]+|\\$\\$Lambda\\$\\d+|\\$Proxy\\d+|GeneratedMethodAccessor\\d+"
+          + "|GeneratedConstructorAccessor\\d+|DirectMethodHandleAccessor\\d*");
+
+  // Limita el coste en stack traces muy profundos
+  private static final int MAX_FRAMES_PER_CAUSE = 64;
+  private static final int MAX_CAUSES = 8;
+
+  private StackTraceFingerprinter() {
+  }
+
+  public static long fingerprint(Throwable throwable) {
+    StringBuilder sb = new StringBuilder(1024);
+    Throwable current = throwable;
+    for (int depth = 0; current != null && depth < MAX_CAUSES; depth++) {
+      sb.append(current.getClass().getName()).append('\n');
+      StackTraceElement[] frames = current.getStackTrace();
+      int limit = Math.min(frames.length, MAX_FRAMES_PER_CAUSE);
+      for (int i = 0; i < limit; i++) {
+        sb.append(normalize(frames[i].getClassName())).append('.').append(normalize(frames[i].getMethodName()))
+            .append('\n');
+      }
+      current = current.getCause() != current ? current.getCause() : null;
+    }
+    return hash(sb.toString());
+  }
+
+  private static String normalize(String name) {
+    return GENERATED_SUFFIX.matcher(name).replaceAll("");
+  }
+
+  private static long hash(String normalized) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(normalized.getBytes(StandardCharsets.UTF_8));
+      return ByteBuffer.wrap(digest, 0, Long.BYTES).getLong();
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 no disponible", e);
+    }
+  }
+}
@@ -0,0 +1,199 @@
+package com.academia.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Mantiene las particiones diarias de system_logs: crea las de los próximos días
+ * y elimina con DROP TABLE las que quedan fuera de la ventana de retención.
+ * Flyway está desactivado y la tabla la crea Hibernate (ddl-auto) sin particionar, así que al
+ * arrancar se convierte aquí (lo mismo que hace V4). Los días son días UTC, con independencia
+ * de la zona horaria de la JVM y de la sesión de PostgreSQL.
+ */
+@Service
+@DependsOn("entityManagerFactory") // ddl-auto ya ha creado system_logs
+public class SystemLogPartitionManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(SystemLogPartitionManager.class);
+
+    private static final String PARENT_TABLE = "system_logs";
+    private static final String PARTITION_PREFIX = "system_logs_p";
+    private static final DateTimeFormatter SUFFIX_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final Pattern PARTITION_NAME = Pattern.compile("^" + PARTITION_PREFIX + "(\\d{8})$");
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+
+    @Value("${app.logs.partitions.enabled:true}")
+    boolean enabled;
+    @Value("${app.logs.partitions.retentionDays:30}")
+    int retentionDays;
+    @Value("${app.logs.partitions.precreateDays:7}")
+    int precreateDays;
+
+    public SystemLogPartitionManager(JdbcTemplate jdbc, TransactionTemplate tx) {
+        this.jdbc = jdbc;
+        this.tx = tx;
+    }
+
+    // Antes de que el servidor web acepte requests: la conversión no compite con escrituras
+    @PostConstruct
+    public void onStartup() {
+        maintainPartitions();
+    }
+
+    @Scheduled(cron = "${app.logs.partitions.cron:0 15 0 * * *}")
+    public void maintainPartitions() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            LocalDate today = LocalDate.now(ZoneOffset.UTC);
+            if (!isPartitioned()) {
+                convertToPartitioned(today);
+            }
+            createPartitions(today.minusDays(1), today.plusDays(precreateDays));
+            dropExpiredPartitions(today);
+            pruneDefaultPartition(today);
+        } catch (Exception e) {
+            logger.error("Error en el mantenimiento de particiones de system_logs: {}", e.getMessage());
+        }
+    }
+
+    private boolean isPartitioned() {
+        Boolean partitioned = jdbc.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table pt JOIN pg_class c ON c.oid = pt.partrelid "
+                        + "WHERE c.relname = ? AND pg_table_is_visible(c.oid))",
+                Boolean.class, PARENT_TABLE);
+        return Boolean.TRUE.equals(partitioned);
+    }
+
+    /**
+     * Tabla de Hibernate -> tabla particionada con las mismas columnas, defaults y CHECK (LIKE),
+     * PK (id, created_at), las filas dentro de la retención y los mismos índices no únicos y claves
+     * foráneas (LIKE no copia estas últimas). Todo en una transacción y bajo un advisory lock, por
+     * si arrancan varias instancias a la vez.
+     */
+    private void convertToPartitioned(LocalDate today) {
+        tx.executeWithoutResult(status -> {
+            jdbc.execute("SELECT pg_advisory_xact_lock(hashtext('system_logs_partitioning'))");
+            if (isPartitioned()) {
+                return;
+            }
+            Boolean exists = jdbc.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, PARENT_TABLE);
+            if (!Boolean.TRUE.equals(exists)) {
+                return;
+            }
+            List<String> indexes = jdbc.queryForList(
+                    "SELECT pg_get_indexdef(i.indexrelid) FROM pg_index i "
+                            + "WHERE i.indrelid = to_regclass(?) AND NOT i.indisunique",
+                    String.class, PARENT_TABLE);
+            List<Map<String, Object>> foreignKeys = jdbc.queryForList(
+                    "SELECT conname, pg_get_constraintdef(oid) AS def FROM pg_constraint "
+                            + "WHERE conrelid = to_regclass(?) AND contype = 'f'",
+                    PARENT_TABLE);
+            LocalDate oldestKept = today.minusDays(retentionDays);
+
+            jdbc.execute("ALTER TABLE " + PARENT_TABLE + " RENAME TO " + PARENT_TABLE + "_legacy");
+            jdbc.execute("ALTER TABLE " + PARENT_TABLE + "_legacy DROP CONSTRAINT IF EXISTS " + PARENT_TABLE + "_pkey");
+            jdbc.execute("CREATE TABLE " + PARENT_TABLE + " (LIKE " + PARENT_TABLE + "_legacy "
+                    + "INCLUDING DEFAULTS INCLUDING CONSTRAINTS) PARTITION BY RANGE (created_at)");
+            // La clave primaria debe incluir la columna de partición
+            jdbc.execute("ALTER TABLE " + PARENT_TABLE + " ADD PRIMARY KEY (id, created_at)");
+            jdbc.execute("CREATE TABLE " + PARENT_TABLE + "_default PARTITION OF " + PARENT_TABLE + " DEFAULT");
+            for (LocalDate day = oldestKept; !day.isAfter(today.plusDays(precreateDays)); day = day.plusDays(1)) {
+                createPartition(day);
+            }
+
+            int copied = jdbc.update("INSERT INTO " + PARENT_TABLE + " SELECT * FROM " + PARENT_TABLE
+                    + "_legacy WHERE created_at >= ?", dayStart(oldestKept));
+            jdbc.execute("DROP TABLE " + PARENT_TABLE + "_legacy");
+            // Las definiciones apuntan a system_logs, que ahora es la tabla nueva; se propagan a cada partición
+            indexes.forEach(jdbc::execute);
+            for (Map<String, Object> fk : foreignKeys) {
+                jdbc.execute("ALTER TABLE " + PARENT_TABLE + " ADD CONSTRAINT " + fk.get("conname") + " "
+                        + fk.get("def"));
+            }
+            logger.info("system_logs convertida en tabla particionada por día ({} filas dentro de la retención)", copied);
+        });
+    }
+
+    private void createPartitions(LocalDate from, LocalDate to) {
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            try {
+                createPartition(day);
+            } catch (Exception e) {
+                // Suele indicar filas de ese día en la partición DEFAULT
+                logger.warn("No se pudo crear la partición {}: {}", PARTITION_PREFIX + day.format(SUFFIX_FORMAT),
+                        e.getMessage());
+            }
+        }
+    }
+
+    private void createPartition(LocalDate day) {
+        // Límites con desfase explícito: con ddl-auto created_at es timestamptz (Instant)
+        jdbc.execute("CREATE TABLE IF NOT EXISTS " + PARTITION_PREFIX + day.format(SUFFIX_FORMAT) + " PARTITION OF "
+                + PARENT_TABLE + " FOR VALUES FROM ('" + dayStart(day) + "') TO ('" + dayStart(day.plusDays(1)) + "')");
+    }
+
+    private static OffsetDateTime dayStart(LocalDate day) {
+        return day.atStartOfDay().atOffset(ZoneOffset.UTC);
+    }
+
+    // La partición DEFAULT no cae con DROP: se borra lo que sale de la retención y se avisa si
+    // quedan filas, porque impiden crear la partición diaria de esos días
+    private void pruneDefaultPartition(LocalDate today) {
+        String defaultPartition = PARENT_TABLE + "_default";
+        Boolean exists = jdbc.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, defaultPartition);
+        if (!Boolean.TRUE.equals(exists)) {
+            return;
+        }
+        int deleted = jdbc.update("DELETE FROM " + defaultPartition + " WHERE created_at < ?",
+                dayStart(today.minusDays(retentionDays)));
+        if (deleted > 0) {
+            logger.info("Eliminadas {} filas de {} por retención", deleted, defaultPartition);
+        }
+        Long remaining = jdbc.queryForObject("SELECT count(*) FROM " + defaultPartition, Long.class);
+        if (remaining != null && remaining > 0) {
+            logger.warn("{} filas de system_logs en {} (fuera de las particiones diarias)", remaining,
+                    defaultPartition);
+        }
+    }
+
+    private void dropExpiredPartitions(LocalDate today) {
+        LocalDate oldestKept = today.minusDays(retentionDays);
+        List<String> partitions = jdbc.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+                        + "JOIN pg_class p ON p.oid = i.inhparent WHERE p.relname = ?",
+                String.class, PARENT_TABLE);
+
+        for (String name : partitions) {
+            Matcher m = PARTITION_NAME.matcher(name);
+            if (!m.matches()) {
+                continue;
+            }
+            LocalDate day = LocalDate.parse(m.group(1), SUFFIX_FORMAT);
+            if (day.isBefore(oldestKept)) {
+                // Eliminar la partición es una operación de metadatos, sin DELETE fila a fila
+                jdbc.execute("DROP TABLE IF EXISTS " + name);
+                logger.info("Partición de logs eliminada por retención: {}", name);
+            }
+        }
+    }
+}
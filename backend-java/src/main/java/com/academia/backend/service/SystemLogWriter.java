@@ -0,0 +1,142 @@
+package com.academia.backend.service;
+
+import com.academia.backend.dto.LogEntry;
+import com.academia.backend.dto.LogWriterStats;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Escritor asíncrono de logs: los llamadores encolan entradas en una cola acotada
+ * y un hilo de fondo las entrega por lotes al {@link LogStore} configurado.
+ */
+@Service
+public class SystemLogWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SystemLogWriter.class);
+
+    public enum OverflowPolicy { DROP, BLOCK }
+
+    private final LogStore logStore;
+
+    @Value("${app.logs.writer.queueCapacity:10000}")
+    int queueCapacity;
+    @Value("${app.logs.writer.batchSize:200}")
+    int batchSize;
+    @Value("${app.logs.writer.flushIntervalMs:500}")
+    long flushIntervalMs;
+    @Value("${app.logs.writer.overflowPolicy:DROP}")
+    OverflowPolicy overflowPolicy;
+    @Value("${app.logs.writer.blockTimeoutMs:50}")
+    long blockTimeoutMs;
+    @Value("${app.logs.writer.shutdownTimeoutMs:10000}")
+    long shutdownTimeoutMs;
+
+    private BlockingQueue<LogEntry> queue;
+    private Thread worker;
+    private volatile boolean running;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+
+    public SystemLogWriter(LogStore logStore) {
+        this.logStore = logStore;
+    }
+
+    @PostConstruct
+    void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        worker = new Thread(this::drainLoop, "system-log-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        try {
+            worker.join(shutdownTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            logger.warn("Se descartan {} logs pendientes al apagar", queue.size());
+        }
+    }
+
+    // Encola un log; nunca lanza excepción hacia el llamador
+    public boolean enqueue(LogEntry entry) {
+        boolean accepted;
+        if (overflowPolicy == OverflowPolicy.BLOCK) {
+            try {
+                accepted = queue.offer(entry, blockTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                accepted = false;
+            }
+        } else {
+            accepted = queue.offer(entry);
+        }
+        if (accepted) {
+            enqueued.incrementAndGet();
+        } else {
+            dropped.incrementAndGet();
+        }
+        return accepted;
+    }
+
+    public LogWriterStats getStats() {
+        return new LogWriterStats(queue.size(), queueCapacity, overflowPolicy.name(),
+                enqueued.get(), written.get(), dropped.get(), failed.get(), batches.get());
+    }
+
+    private void drainLoop() {
+        List<LogEntry> batch = new ArrayList<>(batchSize);
+        // Al apagar se sigue drenando hasta vaciar la cola
+        while (running || !queue.isEmpty()) {
+            try {
+                LogEntry first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.error("Error inesperado en el escritor de logs: {}", e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<LogEntry> batch) {
+        int stored;
+        try {
+            stored = logStore.append(batch);
+        } catch (Exception e) {
+            logger.error("Error al guardar lote de logs: {}", e.getMessage());
+            stored = 0;
+        }
+        written.addAndGet(stored);
+        failed.addAndGet(batch.size() - stored);
+        batches.incrementAndGet();
+    }
+}
@@ -0,0 +1,189 @@
+package com.academia.backend.service;
+
+import com.academia.backend.dto.TokenRevocationStats;
+import com.academia.backend.repo.SessionRepo;
+import com.academia.backend.repo.UserRepo;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Revocaciones en memoria para el modo stateless de JwtFilter (app.auth.stateless.enabled):
+ * el token se acepta por su firma y sus claims, sin consultar sessions en cada request.
+ * - Por usuario, tokens_valid_after: se rechaza todo token con iat anterior.
+ * - Por sesión, los ids revocados: filtro de Bloom delante del conjunto exacto, así la
+ *   respuesta habitual (no revocada) sale del filtro sin tocar el conjunto.
+ * Solo se cargan las revocaciones de los últimos accessTtlMinutes (más margen): las anteriores
+ * ya no afectan a ningún access token vivo, así que el tamaño depende del ritmo de revocaciones
+ * y no del número de usuarios. Se recarga cada syncIntervalMs; las revocaciones hechas en esta
+ * instancia se aplican al momento y las de otras tardan como mucho ese intervalo. Si la última
+ * carga tiene más de maxStalenessMs, isFresh() devuelve false y el filtro vuelve a la BD.
+ * Cada carga lee dos índices parciales (los de V13) que se crean al arrancar, porque ddl-auto
+ * no sabe declararlos; sin ellos cada sincronización recorrería sessions y users enteras.
+ */
+@Service
+public class TokenRevocations {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocations.class);
+
+    // Foto inmutable; se sustituye entera en cada sincronización
+    private record Snapshot(UuidBloomFilter sessionFilter, Set<UUID> revokedSessions,
+                            Map<UUID, Long> userEpochs, long loadedAtMillis) {}
+
+    private final SessionRepo sessions;
+    private final UserRepo users;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+
+    private final boolean enabled;
+    private final long syncIntervalMs;
+    private final long maxStalenessMs;
+    private final double falsePositiveRate;
+    private final long windowMs;
+
+    private volatile Snapshot snapshot;
+    // Revocadas en esta instancia después de la última carga; id -> momento en ms
+    private final Map<UUID, Long> localSessions = new ConcurrentHashMap<>();
+    // userId -> epoch en segundos
+    private final Map<UUID, Long> localEpochs = new ConcurrentHashMap<>();
+
+    private final AtomicLong syncs = new AtomicLong();
+    private final AtomicLong syncFailures = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile long lastSyncMillis;
+
+    public TokenRevocations(SessionRepo sessions, UserRepo users, JdbcTemplate jdbc, TransactionTemplate tx,
+                            @Value("${app.auth.stateless.enabled:false}") boolean enabled,
+                            @Value("${app.auth.stateless.syncIntervalMs:5000}") long syncIntervalMs,
+                            @Value("${app.auth.stateless.maxStalenessMs:30000}") long maxStalenessMs,
+                            @Value("${app.auth.stateless.bloomFalsePositiveRate:0.01}") double falsePositiveRate,
+                            @Value("${jwt.accessTtlMinutes:15}") long accessTtlMinutes) {
+        this.sessions = sessions;
+        this.users = users;
+        this.jdbc = jdbc;
+        this.tx = tx;
+        this.enabled = enabled;
+        this.syncIntervalMs = syncIntervalMs;
+        this.maxStalenessMs = maxStalenessMs;
+        this.falsePositiveRate = falsePositiveRate;
+        // Un token puede seguir vivo accessTtl después de revocarse; el margen cubre el retraso de la carga
+        this.windowMs = accessTtlMinutes * 60_000 + 2 * Math.max(syncIntervalMs, maxStalenessMs);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // true si hay una carga reciente con la que decidir sin ir a la BD
+    public boolean isFresh() {
+        Snapshot s = snapshot;
+        return enabled && s != null && System.currentTimeMillis() - s.loadedAtMillis() <= maxStalenessMs;
+    }
+
+    // O(1) y sin E/S: epoch del usuario, filtro de Bloom y, solo si este duda, el conjunto exacto
+    public boolean isRevoked(UUID userId, UUID sessionId, long issuedAtSeconds) {
+        Snapshot s = snapshot;
+        Long epoch = s.userEpochs().get(userId);
+        boolean revoked = (epoch != null && issuedAtSeconds < epoch)
+                || (s.sessionFilter().mightContain(sessionId) && s.revokedSessions().contains(sessionId));
+        if (!revoked && !localSessions.isEmpty()) {
+            revoked = localSessions.containsKey(sessionId);
+        }
+        if (!revoked && !localEpochs.isEmpty()) {
+            Long localEpoch = localEpochs.get(userId);
+            revoked = localEpoch != null && issuedAtSeconds < localEpoch;
+        }
+        if (revoked) {
+            rejected.incrementAndGet();
+        }
+        return revoked;
+    }
+
+    // Logout en esta instancia: efecto inmediato aquí, en las demás tras la siguiente carga
+    public void revokeSession(UUID sessionId) {
+        if (enabled) {
+            localSessions.put(sessionId, System.currentTimeMillis());
+        }
+    }
+
+    public void revokeUser(UUID userId, Instant tokensValidAfter) {
+        if (enabled) {
+            localEpochs.merge(userId, tokensValidAfter.getEpochSecond(), Math::max);
+        }
+    }
+
+    // Se ejecuta después de que ddl-auto cree las tablas (los repos dependen del EntityManagerFactory)
+    @PostConstruct
+    void ensureIndexes() {
+        try {
+            tx.executeWithoutResult(status -> {
+                jdbc.execute("SELECT pg_advisory_xact_lock(hashtext('token_revocation_indexes'))");
+                jdbc.execute("CREATE INDEX IF NOT EXISTS idx_sessions_revoked_at ON sessions (revoked_at) "
+                        + "WHERE is_revoked");
+                jdbc.execute("CREATE INDEX IF NOT EXISTS idx_users_tokens_valid_after ON users (tokens_valid_after) "
+                        + "WHERE tokens_valid_after IS NOT NULL");
+            });
+        } catch (Exception e) {
+            logger.error("No se pudieron crear los índices de revocación de tokens: {}", e.getMessage());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        sync();
+    }
+
+    @Scheduled(fixedDelayString = "${app.auth.stateless.syncIntervalMs:5000}")
+    public void sync() {
+        if (!enabled) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        try {
+            Instant since = Instant.ofEpochMilli(started - windowMs);
+            Set<UUID> revokedSessions = Set.copyOf(sessions.findIdsRevokedSince(since));
+            Map<UUID, Long> epochs = new HashMap<>();
+            for (Object[] row : users.findTokenEpochsSince(since)) {
+                epochs.put((UUID) row[0], ((Instant) row[1]).getEpochSecond());
+            }
+            snapshot = new Snapshot(UuidBloomFilter.of(revokedSessions, falsePositiveRate),
+                    revokedSessions, Map.copyOf(epochs), started);
+            // Lo local ya está en la BD tras un par de intervalos (el commit puede ir por detrás)
+            long localCutoff = started - 2 * syncIntervalMs;
+            localSessions.values().removeIf(at -> at < localCutoff);
+            localEpochs.values().removeIf(epoch -> epoch * 1000 < localCutoff);
+            syncs.incrementAndGet();
+        } catch (Exception e) {
+            syncFailures.incrementAndGet();
+            logger.warn("No se pudieron cargar las revocaciones de tokens: {}", e.getMessage());
+        } finally {
+            lastSyncMillis = System.currentTimeMillis() - started;
+        }
+    }
+
+    public TokenRevocationStats stats() {
+        Snapshot s = snapshot;
+        return new TokenRevocationStats(enabled, isFresh(),
+                s != null ? s.revokedSessions().size() : 0,
+                s != null ? s.userEpochs().size() : 0,
+                s != null ? s.sessionFilter().bitCount() : 0,
+                localSessions.size() + localEpochs.size(),
+                s != null ? System.currentTimeMillis() - s.loadedAtMillis() : -1,
+                lastSyncMillis, syncs.get(), syncFailures.get(), rejected.get());
+    }
+}
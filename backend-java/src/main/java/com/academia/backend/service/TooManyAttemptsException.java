@@ -0,0 +1,21 @@
+package com.academia.backend.service;
+
+/**
+ * Demasiados intentos de login o refresh desde la misma IP o contra la misma cuenta.
+ * Se responde 429 con Retry-After sin tocar la BD ni el pool de Argon2.
+ */
+public class TooManyAttemptsException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    public TooManyAttemptsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
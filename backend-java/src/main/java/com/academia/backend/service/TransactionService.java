@@ -197,7 +197,8 @@ public class TransactionService {
             try {
                 enrollmentService.cancelEnrollment(
                         transaction.getEnrollment().getId(),
-                        transaction.getUser().getId());
+                        transaction.getUser().getId(),
+                        transaction.getUser().getRole());
             } catch (Exception e) {
                 logService.logError(MODULE_TRANSACTION, "refund",
                         "Error al cancelar matrícula en reembolso: " + e.getMessage(),
@@ -0,0 +1,172 @@
+package com.academia.backend.service;
+
+import com.academia.backend.dto.UserLookupStats;
+import com.academia.backend.repo.UserRepo;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resolución de email/username a id de usuario sin distinguir mayúsculas. Cada identificador es
+ * una sonda directa a uno de los índices de lower(), que resuelve el id sin leer la fila; antes
+ * era un OR sobre dos columnas que no podía usar un único índice.
+ * - Los índices se crean al arrancar (ddl-auto no sabe declarar índices de expresión): únicos si
+ *   no hay cuentas que solo difieran en mayúsculas; si las hay, uno normal hasta que se resuelvan.
+ *   Con duplicados gana la cuenta escrita exactamente igual y si no la más antigua.
+ * - Con '@' se busca primero como email y, si no existe, como username (los usernames antiguos
+ *   pueden contenerlo). Sin '@' solo puede ser un username.
+ * - Los identificadores que no existen se recuerdan negativeTtlSeconds: un barrido de
+ *   enumeración contra login no llega a la BD en cada intento. Registrar o cambiar un
+ *   email/username lo borra aquí; en otra instancia puede seguir "sin existir" hasta el TTL.
+ * Las comprobaciones de duplicados (inUse) no usan la caché: ahí un falso "libre" lo acabaría
+ * rechazando el índice único con un error peor.
+ */
+@Service
+public class UserLookup {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserLookup.class);
+
+    private final UserRepo users;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final boolean negativeEnabled;
+    // Identificador normalizado -> no existe (el valor no se usa)
+    private final Cache<String, Boolean> missing;
+
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong probes = new AtomicLong();
+    private final AtomicLong negativeHits = new AtomicLong();
+
+    public UserLookup(UserRepo users, JdbcTemplate jdbc, TransactionTemplate tx,
+                      @Value("${app.auth.lookup.negativeCache.enabled:true}") boolean negativeEnabled,
+                      @Value("${app.auth.lookup.negativeCache.ttlSeconds:60}") long ttlSeconds,
+                      @Value("${app.auth.lookup.negativeCache.maxEntries:100000}") long maxEntries) {
+        this.users = users;
+        this.jdbc = jdbc;
+        this.tx = tx;
+        this.negativeEnabled = negativeEnabled;
+        this.missing = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    // Se ejecuta después de que ddl-auto cree users (UserRepo depende del EntityManagerFactory)
+    @PostConstruct
+    void ensureIndexes() {
+        ensureLowerIndex("email");
+        ensureLowerIndex("username");
+    }
+
+    // ux_users_<col>_lower si no hay duplicados; si no, ix_users_<col>_lower, que se sustituye por el
+    // único en el primer arranque sin duplicados. INCLUDE permite resolver el id con un index-only scan
+    private void ensureLowerIndex(String column) {
+        String unique = "ux_users_" + column + "_lower";
+        String plain = "ix_users_" + column + "_lower";
+        try {
+            tx.executeWithoutResult(status -> {
+                jdbc.execute("SELECT pg_advisory_xact_lock(hashtext('users_lower_indexes'))");
+                Integer existing = jdbc.queryForObject("SELECT count(*) FROM pg_indexes "
+                        + "WHERE schemaname = current_schema() AND indexname = ?", Integer.class, unique);
+                if (existing != null && existing > 0) {
+                    return;
+                }
+                Integer duplicates = jdbc.queryForObject("SELECT count(*) FROM (SELECT 1 FROM users "
+                        + "WHERE " + column + " IS NOT NULL GROUP BY lower(" + column + ") HAVING count(*) > 1) d",
+                        Integer.class);
+                String columns = " ON users (lower(" + column + ")) INCLUDE (" + column + ", created_at, id)";
+                if (duplicates == null || duplicates == 0) {
+                    jdbc.execute("CREATE UNIQUE INDEX " + unique + columns);
+                    jdbc.execute("DROP INDEX IF EXISTS " + plain);
+                    logger.info("Índice {} creado", unique);
+                } else {
+                    jdbc.execute("CREATE INDEX IF NOT EXISTS " + plain + columns);
+                    logger.warn("{} valores de users.{} repetidos sin distinguir mayúsculas; sin índice único "
+                            + "hasta resolverlos (SELECT lower({}), count(*) FROM users GROUP BY 1 HAVING count(*) > 1)",
+                            duplicates, column, column);
+                }
+            });
+        } catch (Exception e) {
+            logger.error("No se pudo crear el índice de lower(users.{}): {}", column, e.getMessage());
+        }
+    }
+
+    public static String normalize(String identifier) {
+        return identifier == null ? "" : identifier.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public Optional<UUID> resolveId(String identifier) {
+        lookups.incrementAndGet();
+        String key = normalize(identifier);
+        if (key.isEmpty()) {
+            return Optional.empty();
+        }
+        if (negativeEnabled && missing.getIfPresent(key) != null) {
+            negativeHits.incrementAndGet();
+            return Optional.empty();
+        }
+        Optional<UUID> id = probe(key, identifier.trim());
+        if (id.isEmpty() && negativeEnabled) {
+            missing.put(key, Boolean.TRUE);
+        }
+        return id;
+    }
+
+    public boolean emailInUse(String email, UUID exceptUserId) {
+        probes.incrementAndGet();
+        String key = normalize(email);
+        return users.findIdsByNormalizedEmail(key, key).stream()
+                .anyMatch(id -> !id.equals(exceptUserId));
+    }
+
+    public boolean usernameInUse(String username, UUID exceptUserId) {
+        probes.incrementAndGet();
+        String key = normalize(username);
+        return users.findIdsByNormalizedUsername(key, key).stream()
+                .anyMatch(id -> !id.equals(exceptUserId));
+    }
+
+    // Tras registrar o cambiar email/username: deja de darlos por inexistentes
+    public void forget(String... identifiers) {
+        for (String identifier : identifiers) {
+            if (identifier != null) {
+                missing.invalidate(normalize(identifier));
+            }
+        }
+    }
+
+    public UserLookupStats stats() {
+        return new UserLookupStats(lookups.get(), probes.get(), negativeHits.get(), missing.estimatedSize());
+    }
+
+    // raw: lo escrito, para preferir la coincidencia exacta si hay duplicados de mayúsculas
+    private Optional<UUID> probe(String key, String raw) {
+        probes.incrementAndGet();
+        if (key.indexOf('@') < 0) {
+            return first(users.findIdsByNormalizedUsername(key, raw));
+        }
+        Optional<UUID> byEmail = first(users.findIdsByNormalizedEmail(key, raw));
+        if (byEmail.isPresent()) {
+            return byEmail;
+        }
+        probes.incrementAndGet();
+        return first(users.findIdsByNormalizedUsername(key, raw));
+    }
+
+    private static Optional<UUID> first(List<UUID> ids) {
+        return ids.isEmpty() ? Optional.empty() : Optional.of(ids.get(0));
+    }
+}
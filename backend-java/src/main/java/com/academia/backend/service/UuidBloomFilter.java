@@ -0,0 +1,67 @@
+package com.academia.backend.service;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Filtro de Bloom de UUIDs, inmutable una vez construido. Sin falsos negativos: si dice que no,
+ * el id no está; si dice que sí, hay que confirmarlo en el conjunto exacto.
+ * Las k posiciones salen de dos hashes de 64 bits (h1 + i*h2, Kirsch-Mitzenmacher).
+ */
+final class UuidBloomFilter {
+
+    private final long[] bits;
+    private final int mask;
+    private final int hashes;
+
+    private UuidBloomFilter(int bitCount, int hashes) {
+        this.bits = new long[Math.max(1, bitCount >>> 6)];
+        this.mask = bits.length * 64 - 1;
+        this.hashes = hashes;
+    }
+
+    // Tamaño óptimo para la tasa de falsos positivos pedida (potencia de dos para indexar con máscara)
+    static UuidBloomFilter of(Collection<UUID> ids, double falsePositiveRate) {
+        int n = Math.max(1, ids.size());
+        double optimalBits = -n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        int bitCount = Integer.highestOneBit((int) Math.min(1 << 30, Math.max(64, optimalBits)) - 1) << 1;
+        int hashes = (int) Math.max(1, Math.round((double) bitCount / n * Math.log(2)));
+        UuidBloomFilter filter = new UuidBloomFilter(bitCount, Math.min(hashes, 16));
+        for (UUID id : ids) {
+            filter.add(id);
+        }
+        return filter;
+    }
+
+    boolean mightContain(UUID id) {
+        long h1 = mix(id.getMostSignificantBits());
+        long h2 = mix(id.getLeastSignificantBits()) | 1;
+        for (int i = 0; i < hashes; i++) {
+            int bit = (int) (h1 + i * h2) & mask;
+            if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int bitCount() {
+        return bits.length * 64;
+    }
+
+    private void add(UUID id) {
+        long h1 = mix(id.getMostSignificantBits());
+        long h2 = mix(id.getLeastSignificantBits()) | 1;
+        for (int i = 0; i < hashes; i++) {
+            int bit = (int) (h1 + i * h2) & mask;
+            bits[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    // Finalizador de SplitMix64: los UUID v4 ya son aleatorios, pero no todos los ids lo son
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
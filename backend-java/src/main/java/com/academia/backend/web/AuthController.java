@@ -1,5 +1,6 @@
 package com.academia.backend.web;
 
+import com.academia.backend.config.AuthContext;
 import com.academia.backend.domain.Address;
 import com.academia.backend.domain.SessionEntity;
 import com.academia.backend.domain.UserEntity;
@@ -12,7 +13,13 @@ import com.academia.backend.repo.RoleRepo;
 import com.academia.backend.repo.SessionRepo;
 import com.academia.backend.repo.UserRepo;
 import com.academia.backend.service.AuthService;
+import com.academia.backend.service.HashingUnavailableException;
 import com.academia.backend.service.JwtService;
+import com.academia.backend.service.LoginThrottle;
+import com.academia.backend.service.RefreshRotator;
+import com.academia.backend.service.SessionCache;
+import com.academia.backend.service.TokenRevocations;
+import com.academia.backend.service.UserLookup;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -28,7 +35,6 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
@@ -41,6 +47,11 @@ public class AuthController {
   private final RoleRepo roles;
   private final AuthService auth;
   private final JwtService jwt;
+  private final SessionCache sessionCache;
+  private final LoginThrottle throttle;
+  private final RefreshRotator refreshRotator;
+  private final TokenRevocations revocations;
+  private final UserLookup lookup;
 
   @Value("${cookies.secure:false}")
   boolean cookieSecure;
@@ -54,12 +65,19 @@ public class AuthController {
   private static final String RT_COOKIE = "rt";
   private static final String CSRF_COOKIE = "csrf";
 
-  public AuthController(UserRepo users, SessionRepo sessions, RoleRepo roles, AuthService auth, JwtService jwt) {
+  public AuthController(UserRepo users, SessionRepo sessions, RoleRepo roles, AuthService auth, JwtService jwt,
+      SessionCache sessionCache, LoginThrottle throttle, RefreshRotator refreshRotator,
+      TokenRevocations revocations, UserLookup lookup) {
     this.users = users;
     this.sessions = sessions;
     this.roles = roles;
     this.auth = auth;
     this.jwt = jwt;
+    this.sessionCache = sessionCache;
+    this.throttle = throttle;
+    this.refreshRotator = refreshRotator;
+    this.revocations = revocations;
+    this.lookup = lookup;
   }
 
   @PostMapping("/login")
@@ -67,19 +85,25 @@ public class AuthController {
   public ResponseEntity<TokenOut> login(@Valid @RequestBody LoginIn in,
       @RequestHeader(value = "User-Agent", required = false) String ua,
       HttpServletRequest request) {
-    UserEntity user = users.findByEmailOrUsername(in.identifier)
-        .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid credentials"));
-    if (!auth.verifyPassword(user.getPasswordHash(), in.password))
+    InetAddress clientIp = getClientIp(request);
+    // Antes de la BD y de Argon2: un intento rechazado aquí no cuesta nada
+    throttle.checkLogin(ipKey(clientIp), in.identifier);
+
+    // Primero el id por el índice de lower(); los identificadores inexistentes no llegan a la BD
+    UserEntity user = lookup.resolveId(in.identifier).flatMap(users::findById).orElse(null);
+    if (user == null || !auth.verifyPassword(user, in.password)) {
+      throttle.loginFailed(in.identifier);
       throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid credentials");
+    }
+    throttle.loginSucceeded(in.identifier);
 
     String refreshPlain = auth.genRandomUrlToken();
     byte[] rth = auth.hmacRefresh(refreshPlain);
 
-    InetAddress clientIp = getClientIp(request);
     SessionEntity row = auth.newSession(user.getId(), rth, ua, clientIp);
 
     String csrf = auth.genRandomUrlToken();
-    String access = jwt.mintAccess(user.getId().toString(), row.getId().toString());
+    String access = jwt.mintAccess(user.getId().toString(), row.getId().toString(), user.getRole().name());
     TokenOut out = new TokenOut(access, csrf, user.getId());
 
     HttpHeaders headers = new HttpHeaders();
@@ -92,13 +116,13 @@ public class AuthController {
   @Operation(summary = "Registro de nuevo usuario")
   public ResponseEntity<TokenOut> register(@Valid @RequestBody RegisterIn in,
       @RequestHeader(value = "User-Agent", required = false) String ua, HttpServletRequest request) {
-    // Valida que el email no exista
-    if (users.findByEmail(in.getCorreo()).isPresent()) {
+    // Valida que el email no exista (sin distinguir mayúsculas)
+    if (lookup.emailInUse(in.getCorreo(), null)) {
       throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "El email ya está registrado");
     }
 
     // Valida que el username no exista
-    if (users.findByUsername(in.getUsername()).isPresent()) {
+    if (lookup.usernameInUse(in.getUsername(), null)) {
       throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "El nombre de usuario ya está en uso");
     }
 
@@ -110,32 +134,12 @@ public class AuthController {
   @Operation(summary = "Registro de nuevo administrador (solo para super administradores)")
   public ResponseEntity<TokenOut> registerAdmin(@Valid @RequestBody RegisterIn in,
       @RequestHeader(value = "User-Agent", required = false) String ua, HttpServletRequest request) {
-    // Verificar que el usuario autenticado sea super administrador
-    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-    if (authentication == null || !authentication.isAuthenticated()) {
-      throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Usuario no autenticado");
-    }
-
-    String userIdStr = authentication.getName();
-    UUID currentUserId;
-    try {
-      currentUserId = UUID.fromString(userIdStr);
-    } catch (IllegalArgumentException e) {
-      throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Token inválido");
-    }
-
-    // Verificar permisos de super admin
-    UserDto currentUser = auth.getUserInfo(currentUserId);
-    if (!Boolean.TRUE.equals(currentUser.getIsSuperAdmin())) {
-      throw new ResponseStatusException(HttpStatus.FORBIDDEN,
-          "Solo super administradores pueden registrar administradores");
-    }
-
-    if (users.findByEmail(in.getCorreo()).isPresent()) {
+    // El rol SUPER_ADMIN lo comprueba @PreAuthorize con el claim del token
+    if (lookup.emailInUse(in.getCorreo(), null)) {
       throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "El email ya está registrado");
     }
 
-    if (users.findByUsername(in.getUsername()).isPresent()) {
+    if (lookup.usernameInUse(in.getUsername(), null)) {
       throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "El nombre de usuario ya está en uso");
     }
 
@@ -167,6 +171,7 @@ public class AuthController {
         .orElseThrow(() -> new RuntimeException("Role not found: " + roleName));
     user.setRoleEntity(roleEntity);
     user = users.save(user);
+    lookup.forget(in.getCorreo(), in.getUsername());
 
     // Crea una sesión automáticamente
     String refreshPlain = auth.genRandomUrlToken();
@@ -175,7 +180,7 @@ public class AuthController {
     SessionEntity row = auth.newSession(user.getId(), rth, ua, clientIp);
 
     String csrf = auth.genRandomUrlToken();
-    String access = jwt.mintAccess(user.getId().toString(), row.getId().toString());
+    String access = jwt.mintAccess(user.getId().toString(), row.getId().toString(), user.getRole().name());
     TokenOut out = new TokenOut(access, csrf, user.getId());
 
     HttpHeaders headers = new HttpHeaders();
@@ -187,6 +192,8 @@ public class AuthController {
   @PostMapping("/refresh")
   @Operation(summary = "Rota refresh y entrega nuevo access")
   public ResponseEntity<TokenOut> refresh(HttpServletRequest req) {
+    throttle.checkRefresh(ipKey(getClientIp(req)));
+
     String csrfCookie = getCookie(req, CSRF_COOKIE);
     String csrfHeader = req.getHeader("X-CSRF-Token");
     if (csrfCookie == null || csrfHeader == null || !csrfCookie.equals(csrfHeader))
@@ -196,23 +203,13 @@ public class AuthController {
     if (rt == null)
       throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Missing refresh token");
 
-    byte[] rth = auth.hmacRefresh(rt);
-    SessionEntity row = sessions.findByRefreshTokenHash(rth)
-        .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid or expired session"));
-
-    if (row.isRevoked() || row.getExpiresAt().isBefore(Instant.now()))
-      throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid or expired session");
-
-    String newPlain = auth.genRandomUrlToken();
-    row.setRefreshTokenHash(auth.hmacRefresh(newPlain));
-    row.setLastUsedAt(Instant.now());
-    sessions.save(row);
-
-    String access = jwt.mintAccess(row.getUserId().toString(), row.getId().toString());
-    TokenOut out = new TokenOut(access, null, row.getUserId());
+    // Las peticiones concurrentes con el mismo token comparten una única rotación
+    RefreshRotator.Rotation rotation = refreshRotator.rotate(rt);
+    TokenOut out = new TokenOut(rotation.accessToken(), null, rotation.userId());
 
     HttpHeaders headers = new HttpHeaders();
-    headers.add(HttpHeaders.SET_COOKIE, buildCookie(RT_COOKIE, newPlain, true, 60L * 60 * 24 * 60));
+    if (rotation.refreshToken() != null)
+      headers.add(HttpHeaders.SET_COOKIE, buildCookie(RT_COOKIE, rotation.refreshToken(), true, 60L * 60 * 24 * 60));
     return ResponseEntity.ok().headers(headers).body(out);
   }
 
@@ -223,9 +220,12 @@ public class AuthController {
     String rt = getCookie(req, RT_COOKIE);
     if (rt != null) {
       byte[] rth = auth.hmacRefresh(rt);
-      sessions.findByRefreshTokenHash(rth).ifPresent(s -> {
+      // También con el refresh token anterior a la última rotación, como RefreshRotator
+      sessions.findByCurrentOrPreviousRefreshHash(rth).ifPresent(s -> {
         s.setRevoked(true);
         sessions.save(s);
+        sessionCache.invalidate(s.getId());
+        revocations.revokeSession(s.getId());
       });
     }
     res.addHeader(HttpHeaders.SET_COOKIE, buildCookie(RT_COOKIE, "", true, 0));
@@ -239,24 +239,14 @@ public class AuthController {
 
   @PostMapping("/change-password")
   @Operation(summary = "Cambiar contraseña del usuario autenticado")
-  public ResponseEntity<java.util.Map<String, String>> changePassword(@Valid @RequestBody ChangePasswordIn in) {
-    // Obtiene el userId del contexto de seguridad (JWT)
-    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-    if (authentication == null || !authentication.isAuthenticated()) {
-      throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Usuario no autenticado");
-    }
-
-    String userIdStr = authentication.getName();
-    UUID userId;
-    try {
-      userId = UUID.fromString(userIdStr);
-    } catch (IllegalArgumentException e) {
-      throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Token inválido");
-    }
-
+  public ResponseEntity<java.util.Map<String, String>> changePassword(@Valid @RequestBody ChangePasswordIn in,
+      AuthContext ctx) {
     try {
-      auth.changePassword(userId, in.currentPassword, in.newPassword);
+      // La sesión actual sigue activa; las demás del usuario se revocan
+      auth.changePassword(ctx.userId(), in.currentPassword, in.newPassword, ctx.sessionId());
       return ResponseEntity.ok(java.util.Map.of("message", "Contraseña actualizada exitosamente"));
+    } catch (HashingUnavailableException e) {
+      throw e; // 503 en GlobalExceptionHandler, no es un error del cliente
     } catch (RuntimeException e) {
       throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
     }
@@ -352,27 +342,9 @@ public class AuthController {
   }
 
   @GetMapping("/users")
+  @PreAuthorize("hasRole('ADMIN')")
   @Operation(summary = "Obtener lista de todos los usuarios (solo admins)")
   public ResponseEntity<java.util.List<UserDto>> getAllUsers() {
-    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-    if (authentication == null || !authentication.isAuthenticated()) {
-      throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Usuario no autenticado");
-    }
-
-    String userIdStr = authentication.getName();
-    UUID userId;
-    try {
-      userId = UUID.fromString(userIdStr);
-    } catch (IllegalArgumentException e) {
-      throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Token inválido");
-    }
-
-    // Verificar si es admin
-    UserDto currentUser = auth.getUserInfo(userId);
-    if (!Boolean.TRUE.equals(currentUser.getIsAdmin())) {
-      throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Solo administradores pueden ver la lista de usuarios");
-    }
-
     java.util.List<UserDto> userList = auth.getAllUsers();
     return ResponseEntity.ok(userList);
   }
@@ -403,23 +375,15 @@ public class AuthController {
     return null;
   }
 
+  private static String ipKey(InetAddress ip) {
+    return ip != null ? ip.getHostAddress() : "unknown";
+  }
+
+  // IP de la conexión. Detrás de nginx-proxy la sustituye RemoteIpValve
+  // (server.forward-headers-strategy=native) con X-Forwarded-For, pero solo si la conexión viene de
+  // un proxy interno de confianza; las cabeceras enviadas por el cliente no se leen aquí.
+  // getRemoteAddr es siempre una IP literal, así que getByName no hace DNS
   private InetAddress getClientIp(HttpServletRequest request) {
-    String xForwardedFor = request.getHeader("X-Forwarded-For");
-    if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-      try {
-        return InetAddress.getByName(xForwardedFor.split(",")[0].trim());
-      } catch (Exception e) {
-        // Ignore and try next
-      }
-    }
-    String xRealIp = request.getHeader("X-Real-IP");
-    if (xRealIp != null && !xRealIp.isEmpty()) {
-      try {
-        return InetAddress.getByName(xRealIp);
-      } catch (Exception e) {
-        // Ignore and try next
-      }
-    }
     try {
       return InetAddress.getByName(request.getRemoteAddr());
     } catch (Exception e) {
@@ -1,10 +1,10 @@
 package com.academia.backend.web;
 
+import com.academia.backend.config.AuthContext;
 import com.academia.backend.dto.CourseDto;
 import com.academia.backend.dto.in.CreateCourseIn;
 import com.academia.backend.dto.in.UpdateCourseIn;
 import com.academia.backend.service.CourseService;
-import com.academia.backend.service.JwtService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -25,11 +25,9 @@ import java.util.UUID;
 public class CourseController {
   
   private final CourseService courseService;
-  private final JwtService jwtService;
   
-  public CourseController(CourseService courseService, JwtService jwtService) {
+  public CourseController(CourseService courseService) {
     this.courseService = courseService;
-    this.jwtService = jwtService;
   }
   
   @PostMapping
@@ -37,10 +35,10 @@ public class CourseController {
   @Operation(summary = "Crear nuevo curso", description = "Solo profesores y administradores pueden crear cursos")
   public ResponseEntity<CourseDto> createCourse(
       @Valid @RequestBody CreateCourseIn input,
-      @RequestHeader("Authorization") String authHeader) {
+      AuthContext auth) {
     
-    UUID userId = jwtService.extractUserIdFromHeader(authHeader);
-    CourseDto course = courseService.createCourse(input, userId);
+    UUID userId = auth.userId();
+    CourseDto course = courseService.createCourse(input, userId, auth.role());
     return ResponseEntity.status(HttpStatus.CREATED).body(course);
   }
   
@@ -106,10 +104,10 @@ public class CourseController {
   public ResponseEntity<CourseDto> updateCourse(
       @PathVariable UUID id,
       @Valid @RequestBody UpdateCourseIn input,
-      @RequestHeader("Authorization") String authHeader) {
+      AuthContext auth) {
     
-    UUID userId = jwtService.extractUserIdFromHeader(authHeader);
-    CourseDto course = courseService.updateCourse(id, input, userId);
+    UUID userId = auth.userId();
+    CourseDto course = courseService.updateCourse(id, input, userId, auth.role());
     return ResponseEntity.ok(course);
   }
   
@@ -118,10 +116,10 @@ public class CourseController {
   @Operation(summary = "Publicar curso", description = "Cambiar estado del curso a publicado")
   public ResponseEntity<CourseDto> publishCourse(
       @PathVariable UUID id,
-      @RequestHeader("Authorization") String authHeader) {
+      AuthContext auth) {
     
-    UUID userId = jwtService.extractUserIdFromHeader(authHeader);
-    CourseDto course = courseService.publishCourse(id, userId);
+    UUID userId = auth.userId();
+    CourseDto course = courseService.publishCourse(id, userId, auth.role());
     return ResponseEntity.ok(course);
   }
   
@@ -130,10 +128,10 @@ public class CourseController {
   @Operation(summary = "Eliminar curso", description = "Archiva el curso (soft delete)")
   public ResponseEntity<Void> deleteCourse(
       @PathVariable UUID id,
-      @RequestHeader("Authorization") String authHeader) {
+      AuthContext auth) {
     
-    UUID userId = jwtService.extractUserIdFromHeader(authHeader);
-    courseService.deleteCourse(id, userId);
+    UUID userId = auth.userId();
+    courseService.deleteCourse(id, userId, auth.role());
     return ResponseEntity.noContent().build();
   }
 }
@@ -1,10 +1,10 @@
 package com.academia.backend.web;
 
+import com.academia.backend.config.AuthContext;
 import com.academia.backend.dto.EnrollmentDto;
 import com.academia.backend.dto.in.CreateEnrollmentIn;
 import com.academia.backend.dto.in.UpdateEnrollmentIn;
 import com.academia.backend.service.EnrollmentService;
-import com.academia.backend.service.JwtService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -26,20 +26,18 @@ import java.util.UUID;
 public class EnrollmentController {
   
   private final EnrollmentService enrollmentService;
-  private final JwtService jwtService;
   
-  public EnrollmentController(EnrollmentService enrollmentService, JwtService jwtService) {
+  public EnrollmentController(EnrollmentService enrollmentService) {
     this.enrollmentService = enrollmentService;
-    this.jwtService = jwtService;
   }
   
   @PostMapping
   @Operation(summary = "Crear matrícula", description = "Un estudiante se inscribe en un curso")
   public ResponseEntity<EnrollmentDto> createEnrollment(
       @Valid @RequestBody CreateEnrollmentIn input,
-      @RequestHeader("Authorization") String authHeader) {
+      AuthContext auth) {
     
-    UUID userId = jwtService.extractUserIdFromHeader(authHeader);
+    UUID userId = auth.userId();
     EnrollmentDto enrollment = enrollmentService.createEnrollment(input, userId);
     return ResponseEntity.status(HttpStatus.CREATED).body(enrollment);
   }
@@ -54,11 +52,11 @@ public class EnrollmentController {
   @GetMapping("/my-enrollments")
   @Operation(summary = "Obtener mis matrículas", description = "Lista de matrículas del usuario autenticado")
   public ResponseEntity<Page<EnrollmentDto>> getMyEnrollments(
-      @RequestHeader("Authorization") String authHeader,
+      AuthContext auth,
       @RequestParam(defaultValue = "0") int page,
       @RequestParam(defaultValue = "20") int size) {
     
-    UUID userId = jwtService.extractUserIdFromHeader(authHeader);
+    UUID userId = auth.userId();
     Pageable pageable = PageRequest.of(page, size);
     Page<EnrollmentDto> enrollments = enrollmentService.getStudentEnrollments(userId, pageable);
     return ResponseEntity.ok(enrollments);
@@ -67,9 +65,9 @@ public class EnrollmentController {
   @GetMapping("/my-active-courses")
   @Operation(summary = "Obtener mis cursos activos", description = "Lista de cursos en los que estoy activamente matriculado")
   public ResponseEntity<List<EnrollmentDto>> getMyActiveCourses(
-      @RequestHeader("Authorization") String authHeader) {
+      AuthContext auth) {
     
-    UUID userId = jwtService.extractUserIdFromHeader(authHeader);
+    UUID userId = auth.userId();
     List<EnrollmentDto> enrollments = enrollmentService.getActiveEnrollments(userId);
     return ResponseEntity.ok(enrollments);
   }
@@ -103,10 +101,10 @@ public class EnrollmentController {
   public ResponseEntity<EnrollmentDto> updateEnrollment(
       @PathVariable UUID id,
       @Valid @RequestBody UpdateEnrollmentIn input,
-      @RequestHeader("Authorization") String authHeader) {
+      AuthContext auth) {
     
-    UUID userId = jwtService.extractUserIdFromHeader(authHeader);
-    EnrollmentDto enrollment = enrollmentService.updateEnrollment(id, input, userId);
+    UUID userId = auth.userId();
+    EnrollmentDto enrollment = enrollmentService.updateEnrollment(id, input, userId, auth.role());
     return ResponseEntity.ok(enrollment);
   }
   
@@ -114,10 +112,10 @@ public class EnrollmentController {
   @Operation(summary = "Cancelar matrícula")
   public ResponseEntity<Void> cancelEnrollment(
       @PathVariable UUID id,
-      @RequestHeader("Authorization") String authHeader) {
+      AuthContext auth) {
     
-    UUID userId = jwtService.extractUserIdFromHeader(authHeader);
-    enrollmentService.cancelEnrollment(id, userId);
+    UUID userId = auth.userId();
+    enrollmentService.cancelEnrollment(id, userId, auth.role());
     return ResponseEntity.noContent().build();
   }
 }
@@ -0,0 +1,31 @@
+package com.academia.backend.web;
+
+import com.academia.backend.service.JwtKeyRing;
+import io.swagger.v3.oas.annotations.Operation;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+public class JwksController {
+
+  private final JwtKeyRing keyRing;
+
+  public JwksController(JwtKeyRing keyRing) {
+    this.keyRing = keyRing;
+  }
+
+  @GetMapping("/.well-known/jwks.json")
+  @Operation(summary = "Llaves públicas para verificar los access tokens (RS256)")
+  public ResponseEntity<Map<String, List<Map<String, String>>>> jwks() {
+    // Cache corto: tras una rotación los verificadores ven la llave nueva en minutos
+    return ResponseEntity.ok()
+        .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic())
+        .body(Map.of("keys", keyRing.jwks()));
+  }
+}
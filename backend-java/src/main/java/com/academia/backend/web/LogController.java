@@ -1,18 +1,56 @@
 package com.academia.backend.web;
 
+import com.academia.backend.config.CountingAsyncAppender;
+import com.academia.backend.dto.AppenderStats;
+import com.academia.backend.dto.EndpointLatencyDto;
+import com.academia.backend.dto.LogPolicyDto;
+import com.academia.backend.dto.LogSearchCriteria;
+import com.academia.backend.dto.LogSummaryDto;
+import com.academia.backend.dto.LogWriterStats;
+import com.academia.backend.dto.LoginThrottleStats;
+import com.academia.backend.dto.SamplingRules;
+import com.academia.backend.dto.SamplingStatus;
+import com.academia.backend.dto.PasswordHashingStats;
+import com.academia.backend.dto.SessionActivityStats;
+import com.academia.backend.dto.UserLookupStats;
+import com.academia.backend.dto.SessionCacheStats;
+import com.academia.backend.dto.SessionCleanupStats;
+import com.academia.backend.dto.StackTraceDto;
 import com.academia.backend.dto.SystemLogDto;
+import com.academia.backend.dto.TokenRevocationStats;
+import com.academia.backend.service.LogPolicyRegistry;
+import com.academia.backend.service.LogSearchService;
 import com.academia.backend.service.LogService;
+import com.academia.backend.service.LogStreamService;
+import com.academia.backend.service.LoginThrottle;
+import com.academia.backend.service.PasswordHasher;
+import com.academia.backend.service.RequestLogSampler;
+import com.academia.backend.service.RequestMetricsService;
+import com.academia.backend.service.SessionActivity;
+import com.academia.backend.service.UserLookup;
+import com.academia.backend.service.SessionCache;
+import com.academia.backend.service.SessionCleanupService;
+import com.academia.backend.service.TokenRevocations;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/logs")
@@ -21,56 +59,272 @@ import java.time.Instant;
 public class LogController {
   
   private final LogService logService;
+  private final RequestMetricsService requestMetricsService;
+  private final RequestLogSampler requestLogSampler;
+  private final LogStreamService logStreamService;
+  private final LogPolicyRegistry logPolicyRegistry;
+  private final LogSearchService logSearchService;
+  private final SessionCache sessionCache;
+  private final PasswordHasher passwordHasher;
+  private final LoginThrottle loginThrottle;
+  private final SessionCleanupService sessionCleanup;
+  private final TokenRevocations tokenRevocations;
+  private final SessionActivity sessionActivity;
+  private final UserLookup userLookup;
   
-  public LogController(LogService logService) {
+  public LogController(LogService logService, RequestMetricsService requestMetricsService,
+                       RequestLogSampler requestLogSampler,
+                       LogStreamService logStreamService, LogPolicyRegistry logPolicyRegistry,
+                       LogSearchService logSearchService, SessionCache sessionCache,
+                       PasswordHasher passwordHasher, LoginThrottle loginThrottle,
+                       SessionCleanupService sessionCleanup, TokenRevocations tokenRevocations,
+                       SessionActivity sessionActivity, UserLookup userLookup) {
     this.logService = logService;
+    this.requestMetricsService = requestMetricsService;
+    this.requestLogSampler = requestLogSampler;
+    this.logStreamService = logStreamService;
+    this.logPolicyRegistry = logPolicyRegistry;
+    this.logSearchService = logSearchService;
+    this.sessionCache = sessionCache;
+    this.passwordHasher = passwordHasher;
+    this.loginThrottle = loginThrottle;
+    this.sessionCleanup = sessionCleanup;
+    this.tokenRevocations = tokenRevocations;
+    this.sessionActivity = sessionActivity;
+    this.userLookup = userLookup;
   }
   
   @GetMapping
-  @Operation(summary = "Obtener todos los logs", description = "Solo admin")
-  public ResponseEntity<Page<SystemLogDto>> getLogs(
+  @Operation(summary = "Obtener todos los logs", description = "Solo admin. Sin 'since' devuelve los últimos 7 días")
+  public ResponseEntity<Slice<SystemLogDto>> getLogs(
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant since,
       @RequestParam(defaultValue = "0") int page,
       @RequestParam(defaultValue = "50") int size) {
     
     Pageable pageable = PageRequest.of(page, size);
-    Page<SystemLogDto> logs = logService.getLogs(pageable);
+    Slice<SystemLogDto> logs = logService.getLogs(since, pageable);
     return ResponseEntity.ok(logs);
   }
   
   @GetMapping("/level/{level}")
   @Operation(summary = "Obtener logs por nivel", description = "Filtrar por INFO, ERROR, WARN, DEBUG")
-  public ResponseEntity<Page<SystemLogDto>> getLogsByLevel(
+  public ResponseEntity<Slice<SystemLogDto>> getLogsByLevel(
       @PathVariable String level,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant since,
       @RequestParam(defaultValue = "0") int page,
       @RequestParam(defaultValue = "50") int size) {
     
     Pageable pageable = PageRequest.of(page, size);
-    Page<SystemLogDto> logs = logService.getLogsByLevel(level, pageable);
+    Slice<SystemLogDto> logs = logService.getLogsByLevel(level, since, pageable);
     return ResponseEntity.ok(logs);
   }
   
   @GetMapping("/module/{module}")
   @Operation(summary = "Obtener logs por módulo", description = "Filtrar por módulo (Auth, Course, Payment, etc.)")
-  public ResponseEntity<Page<SystemLogDto>> getLogsByModule(
+  public ResponseEntity<Slice<SystemLogDto>> getLogsByModule(
       @PathVariable String module,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant since,
       @RequestParam(defaultValue = "0") int page,
       @RequestParam(defaultValue = "50") int size) {
     
     Pageable pageable = PageRequest.of(page, size);
-    Page<SystemLogDto> logs = logService.getLogsByModule(module, pageable);
+    Slice<SystemLogDto> logs = logService.getLogsByModule(module, since, pageable);
     return ResponseEntity.ok(logs);
   }
   
+  @GetMapping("/search")
+  @PreAuthorize("hasRole('ADMIN')")
+  @Operation(summary = "Buscar logs combinando filtros", description = "Nivel, módulo, usuario, estado, prefijo de ruta, rango de fechas, y texto en el mensaje. Devuelve un resumen sin stack trace; sin 'from' busca en los últimos 7 días")
+  public ResponseEntity<Slice<LogSummaryDto>> search(
+      @RequestParam(required = false) String level,
+      @RequestParam(required = false) String module,
+      @RequestParam(required = false) UUID userId,
+      @RequestParam(required = false) Integer statusCode,
+      @RequestParam(required = false) String pathPrefix,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+      @RequestParam(required = false) String q,
+      @RequestParam(defaultValue = "0") int page,
+      @RequestParam(defaultValue = "50") int size) {
+    
+    LogSearchCriteria criteria = new LogSearchCriteria(level, module, userId, statusCode, pathPrefix, from, to, q);
+    return ResponseEntity.ok(logSearchService.search(criteria, PageRequest.of(page, size)));
+  }
+  
   @GetMapping("/between")
   @Operation(summary = "Obtener logs en rango de fechas")
-  public ResponseEntity<Page<SystemLogDto>> getLogsBetween(
+  public ResponseEntity<Slice<SystemLogDto>> getLogsBetween(
       @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant startDate,
       @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant endDate,
       @RequestParam(defaultValue = "0") int page,
       @RequestParam(defaultValue = "50") int size) {
     
     Pageable pageable = PageRequest.of(page, size);
-    Page<SystemLogDto> logs = logService.getLogsBetween(startDate, endDate, pageable);
+    Slice<SystemLogDto> logs = logService.getLogsBetween(startDate, endDate, pageable);
     return ResponseEntity.ok(logs);
   }
+  
+  @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  @PreAuthorize("hasRole('ADMIN')")
+  @Operation(summary = "Tail en vivo de logs (SSE)", description = "Solo admin. Eventos 'log' filtrados por nivel, módulo y usuario; 'skipped' indica logs perdidos por un cliente lento")
+  public SseEmitter streamLogs(
+      @RequestParam(required = false) String level,
+      @RequestParam(required = false) String module,
+      @RequestParam(required = false) UUID userId) {
+    
+    SseEmitter emitter = logStreamService.subscribe(new LogStreamService.StreamFilter(level, module, userId));
+    if (emitter == null) {
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Demasiados streams de logs abiertos");
+    }
+    return emitter;
+  }
+  
+  @GetMapping("/writer/stats")
+  @PreAuthorize("hasRole('ADMIN')")
+  @Operation(summary = "Estado del escritor asíncrono de logs", description = "Profundidad de cola, descartes y lotes escritos")
+  public ResponseEntity<LogWriterStats> getWriterStats() {
+    return ResponseEntity.ok(logService.getWriterStats());
+  }
+  
+  @GetMapping("/stack-traces")
+  @PreAuthorize("hasRole('ADMIN')")
+  @Operation(summary = "Errores más frecuentes", description = "Stack traces deduplicados por huella, ordenados por ocurrencias")
+  public ResponseEntity<Page<StackTraceDto>> getTopStackTraces(
+      @RequestParam(defaultValue = "0") int page,
+      @RequestParam(defaultValue = "20") int size) {
+    
+    return ResponseEntity.ok(logService.getTopStackTraces(PageRequest.of(page, size)));
+  }
+  
+  @GetMapping("/appenders/stats")
+  @PreAuthorize("hasRole('ADMIN')")
+  @Operation(summary = "Eventos de log descartados por los appenders asíncronos", description = "Solo con el perfil prod; vacío en otros perfiles")
+  public ResponseEntity<List<AppenderStats>> getAppenderStats() {
+    List<AppenderStats> stats = CountingAsyncAppender.registry().entrySet().stream()
+        .map(e -> new AppenderStats(e.getKey(), e.getValue().queueSize(), e.getValue().remainingCapacity(),
+            e.getValue().appended(), e.getValue().discarded(), e.getValue().dropped()))
+        .toList();
+    return ResponseEntity.ok(stats);
+  }
+  
+  @GetMapping("/stack-traces/{fingerprint}")
+  @PreAuthorize("hasRole('ADMIN')")
+  @Operation(summary = "Stack trace completo por huella", description = "La huella es la que devuelve /api/logs/search (stackFingerprint)")
+  public ResponseEntity<StackTraceDto> getStackTrace(@PathVariable String fingerprint) {
+    return logService.getStackTrace(fingerprint)
+        .map(ResponseEntity::ok)
+        .orElseGet(() -> ResponseEntity.notFound().build());
+  }
+  
+  @GetMapping("/metrics/session-cache")
+  @PreAuthorize("hasRole('ADMIN')")
+  @Operation(summary = "Métricas de la caché de sesiones", description = "Aciertos, fallos y expulsiones de la caché que usa JwtFilter")
+  public ResponseEntity<SessionCacheStats> getSessionCacheStats() {
+    return ResponseEntity.ok(sessionCache.stats());
+  }
+  
+  @GetMapping("/metrics/session-cleanup")
+  @PreAuthorize("hasRole('ADMIN')")
+  @Operation(summary = "Progreso de la limpieza de sesiones", description = "Filas borradas en la ejecución actual y la anterior, lotes y duración")
+  public ResponseEntity<SessionCleanupStats> getSessionCleanupStats() {
+    return ResponseEntity.ok(sessionCleanup.stats());
+  }
+  
+  @GetMapping("/metrics/session-activity")
+  @PreAuthorize("hasRole('ADMIN')")
+  @Operation(summary = "Escritura en lote de la actividad de sesiones", description = "Sesiones pendientes, filas y sentencias escritas y duración del último volcado")
+  public ResponseEntity<SessionActivityStats> getSessionActivityStats() {
+    return ResponseEntity.ok(sessionActivity.stats());
+  }
+  
+  @GetMapping("/metrics/user-lookup")
+  @PreAuthorize("hasRole('ADMIN')")
+  @Operation(summary = "Búsquedas de usuario por email/username", description = "Búsquedas, sondas a los índices de lower() y aciertos de la caché de identificadores inexistentes")
+  public ResponseEntity<UserLookupStats> getUserLookupStats() {
+    return ResponseEntity.ok(userLookup.stats());
+  }
+
+  @GetMapping("/metrics/token-revocations")
+  @PreAuthorize("hasRole('ADMIN')")
+  @Operation(summary = "Revocaciones en memoria del modo stateless", description = "Sesiones y usuarios revocados cargados, antigüedad de la última carga y tokens rechazados")
+  public ResponseEntity<TokenRevocationStats> getTokenRevocationStats() {
+    return ResponseEntity.ok(tokenRevocations.stats());
+  }
+  
+  @GetMapping("/metrics/password-hashing")
+  @PreAuthorize("hasRole('ADMIN')")
+  @Operation(summary = "Estado del pool de hashing de contraseñas", description = "Hilos, cola, rechazos y espera en cola del hashing Argon2")
+  public ResponseEntity<PasswordHashingStats> getPasswordHashingStats() {
+    return ResponseEntity.ok(passwordHasher.stats());
+  }
+  
+  @GetMapping("/metrics/login-throttle")
+  @PreAuthorize("hasRole('ADMIN')")
+  @Operation(summary = "Estado del limitador de login", description = "Claves seguidas y bloqueadas, intentos rechazados con 429 y expulsiones de la tabla")
+  public ResponseEntity<LoginThrottleStats> getLoginThrottleStats() {
+    return ResponseEntity.ok(loginThrottle.stats());
+  }
+  
+  @GetMapping("/metrics/latency")
+  @PreAuthorize("hasRole('ADMIN')")
+  @Operation(summary = "Latencias por endpoint", description = "p50/p95/p99 y throughput a partir de los rollups por minuto. Por defecto la última hora")
+  public ResponseEntity<List<EndpointLatencyDto>> getLatencies(
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+      @RequestParam(required = false) String endpoint) {
+    
+    Instant end = to != null ? to : Instant.now();
+    Instant start = from != null ? from : end.minus(1, ChronoUnit.HOURS);
+    return ResponseEntity.ok(requestMetricsService.getLatencies(start, end, endpoint));
+  }
+  
+  @GetMapping("/sampling")
+  @PreAuthorize("hasRole('ADMIN')")
+  @Operation(summary = "Reglas de muestreo y contadores por módulo", description = "Solo admin")
+  public ResponseEntity<SamplingStatus> getSampling() {
+    return ResponseEntity.ok(requestLogSampler.getStatus());
+  }
+  
+  @PutMapping("/sampling")
+  @PreAuthorize("hasRole('ADMIN')")
+  @Operation(summary = "Actualizar reglas de muestreo en caliente", description = "Solo admin")
+  public ResponseEntity<SamplingRules> updateSampling(@RequestBody SamplingRules rules) {
+    try {
+      requestLogSampler.updateRules(rules);
+    } catch (IllegalArgumentException e) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+    return ResponseEntity.ok(requestLogSampler.getRules());
+  }
+  
+  @GetMapping("/policies")
+  @PreAuthorize("hasRole('ADMIN')")
+  @Operation(summary = "Políticas de persistencia por módulo y nivel", description = "Solo admin. Incluye las reglas por defecto (*)")
+  public ResponseEntity<List<LogPolicyDto>> getPolicies() {
+    return ResponseEntity.ok(logPolicyRegistry.getPolicies());
+  }
+  
+  @PutMapping("/policies")
+  @PreAuthorize("hasRole('ADMIN')")
+  @Operation(summary = "Crear o cambiar una política de persistencia", description = "Solo admin. action: PERSIST, SAMPLE (con sampleRate) o CONSOLE. Se aplica sin reiniciar")
+  public ResponseEntity<LogPolicyDto> upsertPolicy(@RequestBody LogPolicyDto policy) {
+    try {
+      return ResponseEntity.ok(logPolicyRegistry.upsert(policy));
+    } catch (IllegalArgumentException e) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+  }
+  
+  @DeleteMapping("/policies/{module}/{level}")
+  @PreAuthorize("hasRole('ADMIN')")
+  @Operation(summary = "Eliminar una política de persistencia", description = "Solo admin. Vuelve a aplicar la regla más general")
+  public ResponseEntity<Void> deletePolicy(@PathVariable String module, @PathVariable String level) {
+    try {
+      return logPolicyRegistry.delete(module, level)
+          ? ResponseEntity.noContent().build()
+          : ResponseEntity.notFound().build();
+    } catch (IllegalArgumentException e) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+  }
 }
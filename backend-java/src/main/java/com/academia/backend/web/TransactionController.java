@@ -1,10 +1,10 @@
 package com.academia.backend.web;
 
+import com.academia.backend.config.AuthContext;
 import com.academia.backend.domain.TransactionStatus;
 import com.academia.backend.dto.TransactionDto;
 import com.academia.backend.dto.in.CreateTransactionIn;
 import com.academia.backend.dto.in.UpdateTransactionIn;
-import com.academia.backend.service.JwtService;
 import com.academia.backend.service.TransactionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -30,20 +30,18 @@ import java.util.UUID;
 public class TransactionController {
 
     private final TransactionService transactionService;
-    private final JwtService jwtService;
 
-    public TransactionController(TransactionService transactionService, JwtService jwtService) {
+    public TransactionController(TransactionService transactionService) {
         this.transactionService = transactionService;
-        this.jwtService = jwtService;
     }
 
     @PostMapping
     @Operation(summary = "Crear transacción", description = "Iniciar proceso de pago para un curso")
     public ResponseEntity<TransactionDto> createTransaction(
             @Valid @RequestBody CreateTransactionIn input,
-            @RequestHeader("Authorization") String authHeader) {
+            AuthContext auth) {
 
-        UUID userId = jwtService.extractUserIdFromHeader(authHeader);
+        UUID userId = auth.userId();
         TransactionDto transaction = transactionService.createTransaction(input, userId);
         return ResponseEntity.status(HttpStatus.CREATED).body(transaction);
     }
@@ -65,11 +63,11 @@ public class TransactionController {
     @GetMapping("/my-transactions")
     @Operation(summary = "Obtener mis transacciones", description = "Lista de transacciones del usuario autenticado")
     public ResponseEntity<Page<TransactionDto>> getMyTransactions(
-            @RequestHeader("Authorization") String authHeader,
+            AuthContext auth,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
 
-        UUID userId = jwtService.extractUserIdFromHeader(authHeader);
+        UUID userId = auth.userId();
         Pageable pageable = PageRequest.of(page, size);
         Page<TransactionDto> transactions = transactionService.getUserTransactions(userId, pageable);
         return ResponseEntity.ok(transactions);
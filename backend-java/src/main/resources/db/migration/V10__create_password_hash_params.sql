@@ -0,0 +1,13 @@
+-- V10__create_password_hash_params.sql
+-- Parámetros Argon2 calibrados por despliegue; la fila con mayor id es la versión vigente
+
+CREATE TABLE password_hash_params (
+    id BIGSERIAL PRIMARY KEY,
+    memory_kb INTEGER NOT NULL,
+    iterations INTEGER NOT NULL,
+    parallelism INTEGER NOT NULL,
+    target_ms INTEGER NOT NULL,
+    measured_ms INTEGER NOT NULL,
+    host VARCHAR(255),
+    created_at TIMESTAMP NOT NULL
+);
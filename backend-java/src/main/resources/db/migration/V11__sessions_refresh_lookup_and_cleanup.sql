@@ -0,0 +1,11 @@
+-- V11__sessions_refresh_lookup_and_cleanup.sql
+-- /refresh y /logout buscan la sesión por igualdad exacta del HMAC del refresh token.
+-- Un índice hash guarda solo el código de 4 bytes de cada valor (no los 32 bytes del HMAC)
+-- y resuelve la búsqueda en O(1) sin importar cuántas sesiones haya.
+CREATE INDEX IF NOT EXISTS idx_sessions_refresh_token_hash
+    ON sessions USING HASH (refresh_token_hash);
+
+-- Para SessionCleanupService: las expiradas usan idx_sessions_expires_at (V1); las revocadas,
+-- este índice parcial sobre la última actividad, que solo contiene filas revocadas.
+CREATE INDEX IF NOT EXISTS idx_sessions_revoked_last_activity
+    ON sessions ((COALESCE(last_used_at, created_at))) WHERE is_revoked;
@@ -0,0 +1,8 @@
+-- V12__sessions_previous_refresh_hash.sql
+-- Rotación del refresh token con ventana de gracia: el hash anterior sigue aceptándose unos
+-- segundos tras rotar, para las peticiones concurrentes de otras pestañas o instancias.
+ALTER TABLE sessions ADD COLUMN IF NOT EXISTS previous_refresh_token_hash BYTEA;
+ALTER TABLE sessions ADD COLUMN IF NOT EXISTS rotated_at TIMESTAMP;
+
+CREATE INDEX IF NOT EXISTS idx_sessions_previous_refresh_token_hash
+    ON sessions USING HASH (previous_refresh_token_hash) WHERE previous_refresh_token_hash IS NOT NULL;
@@ -0,0 +1,11 @@
+-- V13__token_revocation_epochs.sql
+-- Modo stateless de JwtFilter: TokenRevocations carga en memoria solo las revocaciones que aún
+-- pueden afectar a un access token vivo (las de los últimos accessTtlMinutes).
+-- - sessions.revoked_at: cuándo se revocó cada sesión (logout, cambio de contraseña...)
+-- - users.tokens_valid_after: los tokens del usuario emitidos antes de este momento no valen
+ALTER TABLE sessions ADD COLUMN IF NOT EXISTS revoked_at TIMESTAMP;
+ALTER TABLE users ADD COLUMN IF NOT EXISTS tokens_valid_after TIMESTAMP;
+
+CREATE INDEX IF NOT EXISTS idx_sessions_revoked_at ON sessions (revoked_at) WHERE is_revoked;
+CREATE INDEX IF NOT EXISTS idx_users_tokens_valid_after ON users (tokens_valid_after)
+    WHERE tokens_valid_after IS NOT NULL;
@@ -0,0 +1,11 @@
+-- V14__users_lower_identity_indexes.sql
+-- Login y la búsqueda por identificador comparan email/username sin distinguir mayúsculas
+-- (UserLookup). Índices únicos sobre lower(): una sola sonda por identificador y sin cuentas
+-- que solo se diferencian en mayúsculas. INCLUDE permite resolver el id con un index-only scan
+-- (el planificador necesita la columna original en el índice para usar la expresión).
+-- Con Flyway desactivado los crea UserLookup al arrancar, con los mismos nombres.
+-- Falla si ya existen duplicados; para localizarlos antes:
+--   SELECT lower(email), count(*) FROM users GROUP BY 1 HAVING count(*) > 1;
+--   SELECT lower(username), count(*) FROM users GROUP BY 1 HAVING count(*) > 1;
+CREATE UNIQUE INDEX IF NOT EXISTS ux_users_email_lower ON users (lower(email)) INCLUDE (email, created_at, id);
+CREATE UNIQUE INDEX IF NOT EXISTS ux_users_username_lower ON users (lower(username)) INCLUDE (username, created_at, id);
@@ -0,0 +1,69 @@
+-- V4__partition_system_logs.sql
+-- Convierte system_logs en tabla particionada por día (RANGE sobre created_at).
+-- Las particiones futuras y la retención las gestiona SystemLogPartitionManager;
+-- aquí solo se crean las necesarias para los datos migrados y los próximos días.
+-- Días UTC, como SystemLogPartitionManager: created_at es timestamptz (como lo crea ddl-auto)
+-- y los límites no dependen de la zona horaria de la sesión.
+
+ALTER TABLE system_logs RENAME TO system_logs_legacy;
+ALTER INDEX IF EXISTS idx_system_logs_created_at RENAME TO idx_system_logs_legacy_created_at;
+ALTER INDEX IF EXISTS idx_system_logs_user_id RENAME TO idx_system_logs_legacy_user_id;
+-- Índices creados por Hibernate (ddl-auto) en instalaciones sin Flyway
+ALTER INDEX IF EXISTS idx_log_level RENAME TO idx_system_logs_legacy_log_level;
+ALTER INDEX IF EXISTS idx_created_at RENAME TO idx_system_logs_legacy_created_at_hb;
+ALTER INDEX IF EXISTS idx_module RENAME TO idx_system_logs_legacy_module;
+ALTER TABLE system_logs_legacy DROP CONSTRAINT IF EXISTS system_logs_pkey;
+
+-- La clave primaria debe incluir la columna de partición
+CREATE TABLE system_logs (
+    id UUID NOT NULL,
+    action VARCHAR(200) NOT NULL,
+    additional_data JSONB,
+    created_at TIMESTAMPTZ NOT NULL,
+    duration_ms BIGINT,
+    ip_address TEXT,
+    log_level VARCHAR(20) NOT NULL,
+    message TEXT,
+    module VARCHAR(100) NOT NULL,
+    request_method VARCHAR(10),
+    request_path VARCHAR(500),
+    stack_trace TEXT,
+    status_code INTEGER,
+    user_id UUID REFERENCES users(id),
+    user_agent TEXT,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- Red de seguridad para filas fuera de las particiones creadas
+CREATE TABLE system_logs_default PARTITION OF system_logs DEFAULT;
+
+-- Particiones diarias: últimos 30 días (retención por defecto) y próximos 7
+DO $$
+DECLARE
+    today DATE := (now() AT TIME ZONE 'UTC')::date;
+    d DATE := today - 30;
+BEGIN
+    WHILE d <= today + 7 LOOP
+        EXECUTE format(
+            'CREATE TABLE IF NOT EXISTS %I PARTITION OF system_logs FOR VALUES FROM (%L) TO (%L)',
+            'system_logs_p' || to_char(d, 'YYYYMMDD'),
+            d::timestamp AT TIME ZONE 'UTC', (d + 1)::timestamp AT TIME ZONE 'UTC');
+        d := d + 1;
+    END LOOP;
+END $$;
+
+-- Los índices del padre se propagan a cada partición
+CREATE INDEX idx_system_logs_created_at ON system_logs (created_at);
+CREATE INDEX idx_log_level ON system_logs (log_level, created_at);
+CREATE INDEX idx_module ON system_logs (module, created_at);
+CREATE INDEX idx_system_logs_user_id ON system_logs (user_id, created_at);
+
+-- Solo se conservan los logs dentro de la ventana de retención
+INSERT INTO system_logs (id, action, additional_data, created_at, duration_ms, ip_address, log_level, message,
+                         module, request_method, request_path, stack_trace, status_code, user_id, user_agent)
+SELECT id, action, additional_data, created_at, duration_ms, ip_address, log_level, message,
+       COALESCE(module, 'API'), request_method, request_path, stack_trace, status_code, user_id, user_agent
+FROM system_logs_legacy
+WHERE created_at >= ((now() AT TIME ZONE 'UTC')::date - 30)::timestamp AT TIME ZONE 'UTC';
+
+DROP TABLE system_logs_legacy;
@@ -0,0 +1,16 @@
+-- V5__create_request_metrics.sql
+-- Rollups por minuto de latencia por endpoint (reemplazan la fila por request exitosa en system_logs)
+
+CREATE TABLE request_metrics (
+    id BIGSERIAL PRIMARY KEY,
+    bucket_start TIMESTAMP NOT NULL,
+    request_method VARCHAR(10) NOT NULL,
+    endpoint VARCHAR(300) NOT NULL,
+    status_class VARCHAR(3) NOT NULL,
+    request_count BIGINT NOT NULL,
+    total_ms BIGINT NOT NULL,
+    max_ms BIGINT NOT NULL,
+    histogram BIGINT[] NOT NULL
+);
+
+CREATE INDEX idx_request_metrics_bucket ON request_metrics (bucket_start, endpoint);
@@ -0,0 +1,66 @@
+-- V6__dictionary_encode_system_logs.sql
+-- module, action, user_agent y request_path pasan a ser ids de log_dictionary,
+-- y los stack traces se guardan una sola vez por huella en log_stack_traces.
+
+CREATE TABLE log_dictionary (
+    id SERIAL PRIMARY KEY,
+    kind VARCHAR(20) NOT NULL,
+    value VARCHAR(1000) NOT NULL,
+    CONSTRAINT uk_log_dictionary_kind_value UNIQUE (kind, value)
+);
+
+CREATE TABLE log_stack_traces (
+    fingerprint BIGINT PRIMARY KEY,
+    exception_class VARCHAR(300) NOT NULL,
+    stack_trace TEXT NOT NULL,
+    first_seen TIMESTAMP NOT NULL,
+    last_seen TIMESTAMP NOT NULL,
+    occurrences BIGINT NOT NULL
+);
+
+-- Diccionario a partir de los valores existentes
+INSERT INTO log_dictionary (kind, value)
+SELECT DISTINCT 'MODULE', LEFT(module, 1000) FROM system_logs WHERE module IS NOT NULL
+UNION SELECT DISTINCT 'ACTION', LEFT(action, 1000) FROM system_logs WHERE action IS NOT NULL
+UNION SELECT DISTINCT 'USER_AGENT', LEFT(user_agent, 1000) FROM system_logs WHERE user_agent IS NOT NULL
+UNION SELECT DISTINCT 'REQUEST_PATH', LEFT(request_path, 1000) FROM system_logs WHERE request_path IS NOT NULL
+ON CONFLICT (kind, value) DO NOTHING;
+
+ALTER TABLE system_logs ADD COLUMN module_id INTEGER;
+ALTER TABLE system_logs ADD COLUMN action_id INTEGER;
+ALTER TABLE system_logs ADD COLUMN user_agent_id INTEGER;
+ALTER TABLE system_logs ADD COLUMN request_path_id INTEGER;
+ALTER TABLE system_logs ADD COLUMN stack_fingerprint BIGINT;
+
+UPDATE system_logs l SET
+    module_id = (SELECT d.id FROM log_dictionary d WHERE d.kind = 'MODULE' AND d.value = LEFT(l.module, 1000)),
+    action_id = (SELECT d.id FROM log_dictionary d WHERE d.kind = 'ACTION' AND d.value = LEFT(l.action, 1000)),
+    user_agent_id = (SELECT d.id FROM log_dictionary d WHERE d.kind = 'USER_AGENT' AND d.value = LEFT(l.user_agent, 1000)),
+    request_path_id = (SELECT d.id FROM log_dictionary d WHERE d.kind = 'REQUEST_PATH' AND d.value = LEFT(l.request_path, 1000));
+
+-- Los stack traces históricos usan una huella derivada del texto (md5), distinta de la
+-- que calcula la aplicación sobre los frames normalizados: no se agruparán con los nuevos
+INSERT INTO log_stack_traces (fingerprint, exception_class, stack_trace, first_seen, last_seen, occurrences)
+SELECT ('x' || LEFT(md5(stack_trace), 16))::bit(64)::bigint,
+       LEFT(split_part(split_part(MIN(stack_trace), E'\n', 1), ':', 1), 300),
+       MIN(stack_trace), MIN(created_at), MAX(created_at), COUNT(*)
+FROM system_logs
+WHERE stack_trace IS NOT NULL
+GROUP BY stack_trace
+ON CONFLICT (fingerprint) DO NOTHING;
+
+UPDATE system_logs SET stack_fingerprint = ('x' || LEFT(md5(stack_trace), 16))::bit(64)::bigint
+WHERE stack_trace IS NOT NULL;
+
+DROP INDEX IF EXISTS idx_module;
+
+ALTER TABLE system_logs DROP COLUMN module;
+ALTER TABLE system_logs DROP COLUMN action;
+ALTER TABLE system_logs DROP COLUMN user_agent;
+ALTER TABLE system_logs DROP COLUMN request_path;
+ALTER TABLE system_logs DROP COLUMN stack_trace;
+
+ALTER TABLE system_logs ALTER COLUMN module_id SET NOT NULL;
+ALTER TABLE system_logs ALTER COLUMN action_id SET NOT NULL;
+
+CREATE INDEX idx_module ON system_logs (module_id, created_at);
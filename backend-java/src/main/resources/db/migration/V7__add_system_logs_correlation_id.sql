@@ -0,0 +1,4 @@
+-- V7__add_system_logs_correlation_id.sql
+-- Id de correlación por request (X-Request-Id / MDC) en los logs persistidos
+
+ALTER TABLE system_logs ADD COLUMN correlation_id VARCHAR(64);
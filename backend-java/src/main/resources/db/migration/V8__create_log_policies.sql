@@ -0,0 +1,12 @@
+-- V8__create_log_policies.sql
+-- Política de persistencia de logs por módulo y nivel, editable en caliente
+
+CREATE TABLE log_policies (
+    id BIGSERIAL PRIMARY KEY,
+    module VARCHAR(100) NOT NULL,
+    log_level VARCHAR(20) NOT NULL,
+    action VARCHAR(20) NOT NULL,
+    sample_rate DOUBLE PRECISION NOT NULL DEFAULT 1.0,
+    updated_at TIMESTAMP NOT NULL,
+    CONSTRAINT uk_log_policies_module_level UNIQUE (module, log_level)
+);
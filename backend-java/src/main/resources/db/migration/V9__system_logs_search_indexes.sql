@@ -0,0 +1,14 @@
+-- V9__system_logs_search_indexes.sql
+-- Índices para /api/logs/search: cada filtro acompañado de created_at (orden y poda de
+-- particiones) y texto completo sobre message. Con Flyway desactivado los compuestos los crea
+-- ddl-auto (@Table de SystemLog) y el de texto LogSearchService al arrancar, con los mismos nombres.
+-- Sobre la tabla particionada se crean en todas las particiones, presentes y futuras.
+
+DROP INDEX IF EXISTS idx_system_logs_user_id;
+CREATE INDEX IF NOT EXISTS idx_system_logs_user_created ON system_logs (user_id, created_at);
+CREATE INDEX IF NOT EXISTS idx_system_logs_status_created ON system_logs (status_code, created_at);
+CREATE INDEX IF NOT EXISTS idx_system_logs_path_created ON system_logs (request_path_id, created_at);
+
+-- Debe coincidir con la expresión de LogSearchService
+CREATE INDEX IF NOT EXISTS idx_system_logs_message_fts
+    ON system_logs USING GIN (to_tsvector('simple', coalesce(message, '')));